@@ -3,14 +3,24 @@ package com.example.healthmonitoring.activity.controller;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.healthmonitoring.activity.entity.ActivityLog;
 import com.example.healthmonitoring.activity.repo.ActivityLogRepository;
 import com.example.healthmonitoring.activity.service.ActivityService;
+import com.example.healthmonitoring.common.CursorPage;
+import com.example.healthmonitoring.common.HistoryCursor;
+import com.example.healthmonitoring.common.NdjsonStreamer;
+import com.example.healthmonitoring.security.AuthUser;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
 
 @RestController
 @RequestMapping("/api/v1/activity")
@@ -23,31 +33,38 @@ public class ActivityController {
 
     private final ActivityLogRepository repo;
     private final ActivityService svc;
+    private final DailyTotalsService totals;
+    private final TodayTotalsCache todayCache;
+    private final NdjsonStreamer ndjson;
 
-    public ActivityController(ActivityLogRepository repo, ActivityService svc){
-        this.repo = repo; this.svc = svc;
+    public ActivityController(ActivityLogRepository repo, ActivityService svc,
+                              DailyTotalsService totals, TodayTotalsCache todayCache, NdjsonStreamer ndjson){
+        this.repo = repo; this.svc = svc; this.totals = totals; this.todayCache = todayCache;
+        this.ndjson = ndjson;
     }
     private String uid(Authentication a){ return a.getName(); }
+    private long key(Authentication a){ return AuthUser.of(a).key(); }
 
     @PostMapping
+    @Transactional
     public ActivityLog add(@RequestBody CreateReq req, Authentication a){
         if (req.met <= 0 || req.minutes <= 0 || req.weightKg <= 0) throw new IllegalArgumentException("invalid input");
         var log = new ActivityLog();
         log.setUserId(uid(a));
+        log.setUserKey(key(a));
         log.setName(req.name);
         log.setMet(req.met);
         log.setMinutes(req.minutes);
         log.setWeightKgAtTime(req.weightKg);
         log.setTotalKcal(svc.calcKcal(req.met, req.weightKg, req.minutes));
-        return repo.save(log);
+        var saved = repo.save(log);
+        totals.activityLogged(saved);
+        return saved;
     }
 
     @GetMapping("/today/total")
     public TodayOutRes todayTotal(Authentication a){
-        var d = LocalDate.now();
-        var s = d.atStartOfDay();
-        var e = d.plusDays(1).atStartOfDay().minusNanos(1);
-        return new TodayOutRes(repo.sumKcalByUserAndRange(uid(a), s, e));
+        return new TodayOutRes(todayCache.get(uid(a)).kcalOut());
     }
 
     @GetMapping("/history")
@@ -57,14 +74,44 @@ public class ActivityController {
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
         var s = from.atStartOfDay();
         var e = to.plusDays(1).atStartOfDay().minusNanos(1);
-        return repo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(uid(a), s, e);
+        return repo.findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(key(a), s, e);
+    }
+
+    /** Keyset-paginated history; pass back {@code nextCursor} to get the following page */
+    @GetMapping("/history/page")
+    public CursorPage<ActivityLog> historyPage(
+        Authentication a,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit){
+        var s = from.atStartOfDay();
+        var e = to.plusDays(1).atStartOfDay().minusNanos(1);
+        var after = HistoryCursor.decode(cursor, e);
+        int n = HistoryCursor.clampLimit(limit);
+        var rows = repo.findPage(key(a), s, e, after.createdAt(), after.id(), Limit.of(n + 1));
+        return HistoryCursor.page(rows, n, ActivityLog::getCreatedAt, ActivityLog::getId);
+    }
+
+    /** Whole range as NDJSON, one log per line, newest first */
+    @GetMapping(value = "/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> historyStream(
+        Authentication a,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        var userKey = key(a);
+        var s = from.atStartOfDay();
+        var e = to.plusDays(1).atStartOfDay().minusNanos(1);
+        return ndjson.stream(() -> repo.streamRange(userKey, s, e));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void delete(@PathVariable Long id, Authentication a){
         var m = repo.findById(id).orElseThrow();
         if (!m.getUserId().equals(uid(a))) throw new RuntimeException("forbidden");
-        repo.deleteById(id);
+        repo.delete(m);
+        totals.activityDeleted(m);
     }
 }
@@ -1,16 +1,22 @@
 package com.example.healthmonitoring.activity.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(UserDataVersionListener.class)
 @Table(name = "activity_logs")
-public class ActivityLog {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+public class ActivityLog implements UserOwned {
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_logs_seq")
+    @SequenceGenerator(name = "activity_logs_seq", sequenceName = "activity_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable=false) private String userId;
+    @Column(name = "user_key") private Long userKey;   // users.user_key
     @Column(nullable=false) private String name;
     @Column(nullable=false) private double met;
     @Column(nullable=false) private int minutes;
@@ -23,6 +29,8 @@ public class ActivityLog {
     public Long getId() { return id; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
+    @JsonIgnore public Long getUserKey() { return userKey; }
+    public void setUserKey(Long userKey) { this.userKey = userKey; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     public double getMet() { return met; }
@@ -2,21 +2,53 @@ package com.example.healthmonitoring.activity.repo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.healthmonitoring.activity.entity.ActivityLog;
 
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
 
-    List<ActivityLog> findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(
-        String userId, LocalDateTime start, LocalDateTime end);
+    List<ActivityLog> findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(
+        long userKey, LocalDateTime start, LocalDateTime end);
 
     @Query("""
            select coalesce(sum(a.totalKcal), 0)
            from ActivityLog a
-           where a.userId = ?1 and a.createdAt between ?2 and ?3
+           where a.userKey = ?1 and a.createdAt between ?2 and ?3
            """)
-    int sumKcalByUserAndRange(String userId, LocalDateTime start, LocalDateTime end);
+    int sumKcalByUserAndRange(long userKey, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Keyset page, newest first: rows strictly after the cursor ({@code ?4}, {@code ?5}).
+     * Callers ask for one row more than they return to detect the last page.
+     */
+    @Query("""
+           select a from ActivityLog a
+           where a.userKey = ?1 and a.createdAt between ?2 and ?3
+             and (a.createdAt < ?4 or (a.createdAt = ?4 and a.id < ?5))
+           order by a.createdAt desc, a.id desc
+           """)
+    List<ActivityLog> findPage(long userKey, LocalDateTime start, LocalDateTime end,
+                         LocalDateTime cursorAt, long cursorId, Limit limit);
+
+    /**
+     * Whole range as a forward-only cursor; must be consumed inside a transaction
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           select a from ActivityLog a
+           where a.userKey = ?1 and a.createdAt between ?2 and ?3
+           order by a.createdAt desc, a.id desc
+           """)
+    Stream<ActivityLog> streamRange(long userKey, LocalDateTime start, LocalDateTime end);
 }
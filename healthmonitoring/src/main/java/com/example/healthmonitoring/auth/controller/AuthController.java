@@ -2,27 +2,37 @@ package com.example.healthmonitoring.auth.controller;
 
 import com.example.healthmonitoring.auth.entity.User;
 import com.example.healthmonitoring.auth.repo.UserRepository;
+import com.example.healthmonitoring.security.AuthUser;
 import com.example.healthmonitoring.security.JwtService;
+import com.example.healthmonitoring.security.PasswordHasher;
+import com.example.healthmonitoring.security.TokenVersions;
+import com.example.healthmonitoring.security.UserExistenceCache;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
     private final UserRepository users;
-    private final PasswordEncoder pe;
+    private final PasswordHasher hasher;
     private final JwtService jwt;
+    private final UserExistenceCache knownUsers;
+    private final TokenVersions tokenVersions;
 
-    public AuthController(UserRepository u, PasswordEncoder p, JwtService j) {
+    public AuthController(UserRepository u, PasswordHasher h, JwtService j, UserExistenceCache k, TokenVersions t) {
         users = u;
-        pe = p;
+        hasher = h;
         jwt = j;
+        knownUsers = k;
+        tokenVersions = t;
     }
 
     @PostMapping("/register")
@@ -33,11 +43,12 @@ public class AuthController {
         }
         var u = users.save(User.builder()
                 .email(req.getEmail())
-                .password(pe.encode(req.getPassword()))
+                .password(hasher.encode(req.getPassword()))
                 .fullName(req.getFullName())
                 .roles("USER")
                 .build());
-        String token = jwt.generate(u.getEmail(), Map.of("uid", u.getId().toString(), "name", u.getFullName()));
+        knownUsers.invalidate(u.getEmail());
+        String token = jwt.generate(u.getEmail(), claims(u));
         // Return "token" to match Flutter frontend expectation
         return Map.of("token", token);
     }
@@ -46,14 +57,40 @@ public class AuthController {
     public Map<String, String> login(@Valid @RequestBody LoginReq req) {
         var u = users.findByEmail(req.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        if (!pe.matches(req.getPassword(), u.getPassword())) {
+        if (!hasher.matches(req.getPassword(), u.getPassword())) {
             throw new RuntimeException("Wrong password");
         }
-        String token = jwt.generate(u.getEmail(), Map.of("uid", u.getId().toString(), "name", u.getFullName()));
+        if (hasher.needsUpgrade(u.getPassword())) {
+            // Stored at a lower cost than configured; redo it off this request, retried on a later login if dropped
+            String current = u.getPassword();
+            hasher.encodeLater(req.getPassword(), hash -> users.replacePasswordHash(u.getId(), current, hash));
+        }
+        String token = jwt.generate(u.getEmail(), claims(u));
         // Return "token" to match Flutter frontend expectation
         return Map.of("token", token);
     }
 
+    /**
+     * Revoke every token issued to the caller so far (all devices); returns a fresh one for this device
+     */
+    @PostMapping("/logout-all")
+    public Map<String, String> logoutAll(Authentication auth) {
+        var u = users.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        u.setTokenVersion(tokenVersions.revokeAll(AuthUser.of(auth).key()));
+        return Map.of("token", jwt.generate(u.getEmail(), claims(u)));
+    }
+
+    // Everything JwtAuthFilter needs to build the principal without loading the user
+    private static Map<String, Object> claims(User u) {
+        return Map.of("uid", u.getId().toString(), "uk", u.getUserKey(), "name", u.getFullName(),
+                "roles", roles(u), "tv", u.getTokenVersion());
+    }
+
+    private static List<String> roles(User u) {
+        return Arrays.stream(u.getRoles().split(",")).map(String::trim).filter(r -> !r.isEmpty()).toList();
+    }
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -2,7 +2,9 @@ package com.example.healthmonitoring.auth.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.UuidGenerator;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
@@ -25,4 +27,23 @@ public class User {
     private String fullName;
     @Column(nullable = false)
     private String roles;
+
+    // Compact key used on the user-owned tables instead of the email; assigned by the database
+    @Generated
+    @Column(name = "user_key", unique = true, insertable = false, updatable = false,
+            columnDefinition = "bigint generated by default as identity")
+    private Long userKey;
+
+    // Tokens carry the version they were issued at; bumping it revokes them all (see TokenVersions)
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    // Bumped by every transaction that writes the user's data; only ever changed in SQL (see UserDataVersions)
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long dataVersion;
+
+    @Column(name = "data_version_at", insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) with time zone")
+    private OffsetDateTime dataVersionAt;
 }
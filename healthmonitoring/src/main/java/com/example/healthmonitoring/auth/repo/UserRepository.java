@@ -1,12 +1,47 @@
 package com.example.healthmonitoring.auth.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.healthmonitoring.auth.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+    boolean existsByEmail(String email);
+
+    @Query("select u.userKey from User u where u.email = ?1")
+    Optional<Long> findKeyByEmail(String email);
+
+    /**
+     * Replace the password hash unless it changed since {@code current} was read
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = ?3 where u.id = ?1 and u.password = ?2")
+    int replacePasswordHash(UUID id, String current, String replacement);
+
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.userKey = ?1")
+    int incrementTokenVersion(long userKey);
+
+    @Query("select u.tokenVersion from User u where u.userKey = ?1")
+    Optional<Integer> findTokenVersion(long userKey);
+
+    /**
+     * Users who have revoked their tokens at least once; everyone else is at version 0
+     */
+    @Query("""
+           select new com.example.healthmonitoring.auth.repo.UserRepository$TokenVersion(u.userKey, u.tokenVersion)
+           from User u
+           where u.tokenVersion > 0
+           """)
+    List<TokenVersion> findRaisedTokenVersions();
+
+    record TokenVersion(Long userKey, int version) {}
 }
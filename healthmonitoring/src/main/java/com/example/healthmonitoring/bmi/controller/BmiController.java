@@ -1,16 +1,25 @@
 package com.example.healthmonitoring.bmi.controller;
 
 import com.example.healthmonitoring.bmi.entity.WeightLog;
+import com.example.healthmonitoring.bmi.repo.WeightLogRepository;
 import com.example.healthmonitoring.bmi.service.BmiService;
+import com.example.healthmonitoring.common.CursorPage;
+import com.example.healthmonitoring.common.MediaTypes;
+import com.example.healthmonitoring.common.NdjsonStreamer;
+import com.example.healthmonitoring.security.AuthUser;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,26 +28,62 @@ import java.util.List;
 public class BmiController {
 
     private final BmiService bmiService;
+    private final WeightLogRepository weightRepo;
+    private final NdjsonStreamer ndjson;
 
     private String getUserId(Authentication auth) {
         return auth.getName();
     }
 
+    private long getUserKey(Authentication auth) {
+        return AuthUser.of(auth).key();
+    }
+
     /**
      * Log weight
      */
     @PostMapping("/weight")
     @ResponseStatus(HttpStatus.CREATED)
     public WeightLog logWeight(@Valid @RequestBody LogWeightRequest request, Authentication auth) {
-        return bmiService.logWeight(getUserId(auth), request.getWeightKg(), request.getNote());
+        return bmiService.logWeight(getUserId(auth), getUserKey(auth), request.getWeightKg(), request.getNote());
     }
 
     /**
-     * Get weight history
+     * Get weight history, optionally limited to a date range
      */
     @GetMapping("/weight/history")
-    public List<WeightLog> getWeightHistory(Authentication auth) {
-        return bmiService.getWeightHistory(getUserId(auth));
+    public List<WeightLog> getWeightHistory(
+            Authentication auth,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bmiService.getWeightHistory(getUserKey(auth), from, to);
+    }
+
+    /**
+     * Get weight history one page at a time; pass back nextCursor for the next page
+     */
+    @GetMapping("/weight/history/page")
+    public CursorPage<WeightLog> getWeightHistoryPage(
+            Authentication auth,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return bmiService.getWeightHistoryPage(getUserKey(auth), from, to, cursor, limit);
+    }
+
+    /**
+     * Stream weight history as NDJSON (one log per line, newest first)
+     */
+    @GetMapping(value = "/weight/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamWeightHistory(
+            Authentication auth,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        long userKey = getUserKey(auth);
+        LocalDateTime start = BmiService.rangeStart(from);
+        LocalDateTime end = BmiService.rangeEnd(to);
+        return ndjson.stream(() -> weightRepo.streamRange(userKey, start, end));
     }
 
     /**
@@ -46,7 +91,7 @@ public class BmiController {
      */
     @GetMapping("/weight/latest")
     public WeightLog getLatestWeight(Authentication auth) {
-        return bmiService.getLatestWeight(getUserId(auth));
+        return bmiService.getLatestWeight(getUserKey(auth));
     }
 
     /**
@@ -57,7 +102,18 @@ public class BmiController {
             Authentication auth,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
-        return bmiService.getWeightProgress(getUserId(auth), from, to);
+        return bmiService.getWeightProgress(getUserKey(auth), from, to);
+    }
+
+    /**
+     * Get weight progress as parallel arrays (Accept: columns+json or CBOR)
+     */
+    @GetMapping(value = "/weight/progress", produces = {MediaTypes.COLUMNS_JSON, MediaType.APPLICATION_CBOR_VALUE})
+    public BmiService.WeightProgressColumns getWeightProgressColumns(
+            Authentication auth,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return BmiService.WeightProgressColumns.of(bmiService.getWeightProgress(getUserKey(auth), from, to));
     }
 
     /**
@@ -66,7 +122,7 @@ public class BmiController {
     @DeleteMapping("/weight/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteWeightLog(@PathVariable Long id, Authentication auth) {
-        bmiService.deleteWeightLog(getUserId(auth), id);
+        bmiService.deleteWeightLog(getUserId(auth), getUserKey(auth), id);
     }
 
     // DTO
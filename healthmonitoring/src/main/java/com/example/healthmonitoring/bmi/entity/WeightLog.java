@@ -1,24 +1,33 @@
 package com.example.healthmonitoring.bmi.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataVersionListener.class)
 @Table(name = "weight_logs")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class WeightLog {
+public class WeightLog implements UserOwned {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weight_logs_seq")
+    @SequenceGenerator(name = "weight_logs_seq", sequenceName = "weight_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String userId;
 
+    @JsonIgnore
+    @Column(name = "user_key")
+    private Long userKey; // users.user_key
+
     @Column(nullable = false)
     private double weightKg;
 
@@ -1,23 +1,59 @@
 package com.example.healthmonitoring.bmi.repo;
 
 import com.example.healthmonitoring.bmi.entity.WeightLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WeightLogRepository extends JpaRepository<WeightLog, Long> {
     
-    List<WeightLog> findByUserIdOrderByCreatedAtDesc(String userId);
+    List<WeightLog> findByUserKeyOrderByCreatedAtDesc(long userKey);
     
-    List<WeightLog> findByUserIdAndCreatedAtBetweenOrderByCreatedAtAsc(
-        String userId, LocalDateTime start, LocalDateTime end
+    List<WeightLog> findByUserKeyAndCreatedAtBetweenOrderByCreatedAtAsc(
+        long userKey, LocalDateTime start, LocalDateTime end
+    );
+
+    List<WeightLog> findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(
+        long userKey, LocalDateTime start, LocalDateTime end
     );
     
-    Optional<WeightLog> findFirstByUserIdOrderByCreatedAtDesc(String userId);
+    Optional<WeightLog> findFirstByUserKeyOrderByCreatedAtDesc(long userKey);
     
-    @Query("SELECT w FROM WeightLog w WHERE w.userId = ?1 ORDER BY w.createdAt DESC")
-    List<WeightLog> findLatestByUserId(String userId);
-}
\ No newline at end of file
+    @Query("SELECT w FROM WeightLog w WHERE w.userKey = ?1 ORDER BY w.createdAt DESC")
+    List<WeightLog> findLatestByUserKey(long userKey);
+
+    /**
+     * Keyset page, newest first: rows strictly after the cursor ({@code ?4}, {@code ?5}).
+     * Callers ask for one row more than they return to detect the last page.
+     */
+    @Query("""
+           select w from WeightLog w
+           where w.userKey = ?1 and w.createdAt between ?2 and ?3
+             and (w.createdAt < ?4 or (w.createdAt = ?4 and w.id < ?5))
+           order by w.createdAt desc, w.id desc
+           """)
+    List<WeightLog> findPage(long userKey, LocalDateTime start, LocalDateTime end,
+                         LocalDateTime cursorAt, long cursorId, Limit limit);
+
+    /**
+     * Whole range as a forward-only cursor; must be consumed inside a transaction
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           select w from WeightLog w
+           where w.userKey = ?1 and w.createdAt between ?2 and ?3
+           order by w.createdAt desc, w.id desc
+           """)
+    Stream<WeightLog> streamRange(long userKey, LocalDateTime start, LocalDateTime end);
+}
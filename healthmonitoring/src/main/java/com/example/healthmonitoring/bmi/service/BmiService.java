@@ -1,17 +1,21 @@
 package com.example.healthmonitoring.bmi.service;
 
 import com.example.healthmonitoring.bmi.entity.WeightLog;
+import com.example.healthmonitoring.common.CursorPage;
+import com.example.healthmonitoring.common.HistoryCursor;
 import com.example.healthmonitoring.bmi.repo.WeightLogRepository;
 import com.example.healthmonitoring.profile.entity.UserProfile;
 import com.example.healthmonitoring.profile.repo.UserProfileRepository;
 import com.example.healthmonitoring.profile.service.HealthCalculationService;
 import com.example.healthmonitoring.profile.service.ProfileService;
 import lombok.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +23,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BmiService {
 
+    // Bounds used when a history request leaves one side of the range open
+    private static final LocalDate OPEN_FROM = LocalDate.of(1970, 1, 1);
+    private static final LocalDate OPEN_TO = LocalDate.of(9999, 12, 30);
+
     private final WeightLogRepository weightRepo;
     private final UserProfileRepository profileRepo;
     private final HealthCalculationService healthCalc;
@@ -28,7 +36,7 @@ public class BmiService {
      * Log weight and update profile
      */
     @Transactional
-    public WeightLog logWeight(String userId, double weightKg, String note) {
+    public WeightLog logWeight(String userId, long userKey, double weightKg, String note) {
         // Get user profile for height
         UserProfile profile = profileRepo.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Profile not found. Please create profile first."));
@@ -39,6 +47,7 @@ public class BmiService {
         // Create weight log
         WeightLog log = WeightLog.builder()
             .userId(userId)
+            .userKey(userKey)
             .weightKg(weightKg)
             .bmi(bmi)
             .note(note)
@@ -46,8 +55,8 @@ public class BmiService {
 
         WeightLog saved = weightRepo.save(log);
 
-        // Update current weight in profile
-        profileService.updateWeight(userId, weightKg);
+        // Update current weight in the profile loaded above
+        profileService.updateWeight(profile, weightKg);
 
         return saved;
     }
@@ -55,19 +64,52 @@ public class BmiService {
     /**
      * Get weight history
      */
-    public List<WeightLog> getWeightHistory(String userId) {
-        return weightRepo.findByUserIdOrderByCreatedAtDesc(userId);
+    public List<WeightLog> getWeightHistory(long userKey) {
+        return weightRepo.findByUserKeyOrderByCreatedAtDesc(userKey);
+    }
+
+    /**
+     * Get weight history within an optional range (either side may be null)
+     */
+    public List<WeightLog> getWeightHistory(long userKey, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return getWeightHistory(userKey);
+        }
+        return weightRepo.findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(userKey, rangeStart(from), rangeEnd(to));
+    }
+
+    /**
+     * Get one keyset page of weight history, newest first
+     */
+    public CursorPage<WeightLog> getWeightHistoryPage(long userKey, LocalDate from, LocalDate to,
+                                                      String cursor, Integer limit) {
+        LocalDateTime end = rangeEnd(to);
+        HistoryCursor after = HistoryCursor.decode(cursor, end);
+        int size = HistoryCursor.clampLimit(limit);
+
+        List<WeightLog> rows = weightRepo.findPage(
+            userKey, rangeStart(from), end, after.createdAt(), after.id(), Limit.of(size + 1)
+        );
+        return HistoryCursor.page(rows, size, WeightLog::getCreatedAt, WeightLog::getId);
+    }
+
+    public static LocalDateTime rangeStart(LocalDate from) {
+        return (from != null ? from : OPEN_FROM).atStartOfDay();
+    }
+
+    public static LocalDateTime rangeEnd(LocalDate to) {
+        return (to != null ? to : OPEN_TO).plusDays(1).atStartOfDay().minusNanos(1);
     }
 
     /**
      * Get weight progress chart data
      */
-    public WeightProgressResponse getWeightProgress(String userId, LocalDate from, LocalDate to) {
+    public WeightProgressResponse getWeightProgress(long userKey, LocalDate from, LocalDate to) {
         LocalDateTime start = from.atStartOfDay();
         LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<WeightLog> logs = weightRepo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtAsc(
-            userId, start, end
+        List<WeightLog> logs = weightRepo.findByUserKeyAndCreatedAtBetweenOrderByCreatedAtAsc(
+            userKey, start, end
         );
 
         if (logs.isEmpty()) {
@@ -93,8 +135,8 @@ public class BmiService {
     /**
      * Get latest weight
      */
-    public WeightLog getLatestWeight(String userId) {
-        return weightRepo.findFirstByUserIdOrderByCreatedAtDesc(userId)
+    public WeightLog getLatestWeight(long userKey) {
+        return weightRepo.findFirstByUserKeyOrderByCreatedAtDesc(userKey)
             .orElseThrow(() -> new RuntimeException("No weight logs found"));
     }
 
@@ -102,7 +144,7 @@ public class BmiService {
      * Delete weight log
      */
     @Transactional
-    public void deleteWeightLog(String userId, Long logId) {
+    public void deleteWeightLog(String userId, long userKey, Long logId) {
         WeightLog log = weightRepo.findById(logId)
             .orElseThrow(() -> new RuntimeException("Weight log not found"));
 
@@ -110,11 +152,12 @@ public class BmiService {
             throw new RuntimeException("Forbidden");
         }
 
-        weightRepo.deleteById(logId);
+        weightRepo.delete(log);
 
         // Update profile with latest weight if available
-        weightRepo.findFirstByUserIdOrderByCreatedAtDesc(userId)
-            .ifPresent(latest -> profileService.updateWeight(userId, latest.getWeightKg()));
+        weightRepo.findFirstByUserKeyOrderByCreatedAtDesc(userKey)
+            .ifPresent(latest -> profileRepo.findByUserId(userId)
+                .ifPresent(profile -> profileService.updateWeight(profile, latest.getWeightKg())));
     }
 
     @Data
@@ -126,4 +169,40 @@ public class BmiService {
         private Double startWeight;
         private Double currentWeight;
     }
+
+    /**
+     * Weight progress with the logs as parallel arrays; index i of every array is the
+     * same log. Times are epoch seconds; notes are left out since charts don't show them.
+     */
+    @Data
+    @Builder
+    public static class WeightProgressColumns {
+        private long[] id;
+        private long[] time;
+        private double[] weightKg;
+        private double[] bmi;
+        private double weightChange;
+        private double averageBmi;
+        private Double startWeight;
+        private Double currentWeight;
+
+        public static WeightProgressColumns of(WeightProgressResponse progress) {
+            List<WeightLog> logs = progress.getLogs();
+            int n = logs.size();
+            long[] id = new long[n];
+            long[] time = new long[n];
+            double[] weightKg = new double[n];
+            double[] bmi = new double[n];
+            for (int i = 0; i < n; i++) {
+                WeightLog log = logs.get(i);
+                id[i] = log.getId();
+                // Logs are stamped with the server's local time
+                time[i] = log.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond();
+                weightKg[i] = log.getWeightKg();
+                bmi[i] = log.getBmi();
+            }
+            return new WeightProgressColumns(id, time, weightKg, bmi, progress.getWeightChange(),
+                progress.getAverageBmi(), progress.getStartWeight(), progress.getCurrentWeight());
+        }
+    }
 }
\ No newline at end of file
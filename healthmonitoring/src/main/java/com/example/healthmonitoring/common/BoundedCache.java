@@ -0,0 +1,142 @@
+package com.example.healthmonitoring.common;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small in-process cache: LRU eviction once {@code maxSize} entries are held,
+ * expire-after-write TTL, and hit/miss/eviction counters.
+ * Guarded by a ReentrantLock rather than synchronized so a virtual thread
+ * waiting on it unmounts instead of pinning its carrier.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V getIfPresent(K key) {
+        return getIfPresent(key, v -> true);
+    }
+
+    /**
+     * Returns the cached value if present, not expired and accepted by {@code valid};
+     * otherwise drops the entry and records a miss.
+     */
+    public V getIfPresent(K key, Predicate<V> valid) {
+        lock.lock();
+        try {
+            Entry<V> entry = map.get(key);
+            if (entry != null && !isExpired(entry) && valid.test(entry.value)) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                map.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            map.put(key, new Entry<>(value, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace a live entry in place; keeps its original write time so the TTL
+     * still bounds how long an entry can live without a reload.
+     */
+    public void update(K key, UnaryOperator<V> fn) {
+        lock.lock();
+        try {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                return;
+            }
+            if (isExpired(entry)) {
+                map.remove(key);
+                return;
+            }
+            map.put(key, new Entry<>(fn.apply(entry.value), entry.writtenAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            map.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            map.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return System.nanoTime() - entry.writtenAt > ttlNanos;
+    }
+
+    private record Entry<V>(V value, long writtenAt) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.healthmonitoring.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads can hold (or wait inside the pool for) a connection at once.
+ *
+ * With request handling on virtual threads there is no worker pool bounding
+ * concurrency any more; thousands of requests would otherwise all park inside
+ * Hikari's handoff queue. A fair semaphore in front keeps waiters in FIFO order
+ * and fails fast with a clear error once the acquire timeout passes.
+ * The permit is released when the connection is closed (returned to the pool).
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(maxConcurrency, maxConcurrency - permits.availablePermits(), permits.getQueueLength(),
+            rejected.sum());
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                    "Database concurrency limit (" + maxConcurrency + ") reached; timed out waiting for a permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", e);
+        }
+    }
+
+    private Connection limited(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "unwrap" -> {
+                        if (((Class<?>) args[0]).isInstance(target)) return target;
+                    }
+                    case "isWrapperFor" -> {
+                        if (((Class<?>) args[0]).isInstance(target)) return true;
+                    }
+                    default -> {
+                    }
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+    public record Stats(int limit, int inUse, int waiting, long rejected) {
+    }
+}
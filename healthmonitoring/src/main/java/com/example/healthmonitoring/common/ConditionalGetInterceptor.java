@@ -0,0 +1,68 @@
+package com.example.healthmonitoring.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers GETs for user data with 304 when If-None-Match carries the user's
+ * current ETag, before the handler (and any query) runs. Otherwise the tag is
+ * left on the request for {@link ETagResponseAdvice} to put on a successful body.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    private final UserDataVersions versions;
+
+    public ConditionalGetInterceptor(UserDataVersions versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return true;
+        }
+
+        // JSON, columnar JSON and CBOR of the same data get different tags
+        String etag = versions.etag(auth.getName(), request.getHeader(HttpHeaders.ACCEPT));
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, ETagResponseAdvice.CACHE_CONTROL);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
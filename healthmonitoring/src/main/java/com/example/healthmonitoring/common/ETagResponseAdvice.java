@@ -0,0 +1,44 @@
+package com.example.healthmonitoring.common;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the ETag computed by {@link ConditionalGetInterceptor} to 2xx bodies only,
+ * so error responses are never cached against the current version.
+ */
+@ControllerAdvice
+public class ETagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    // Clients may keep the body but must revalidate before using it
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest req && response instanceof ServletServerHttpResponse res) {
+            Object etag = req.getServletRequest().getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+            int status = res.getServletResponse().getStatus();
+            if (etag != null && status >= 200 && status < 300) {
+                response.getHeaders().setETag((String) etag);
+                response.getHeaders().setCacheControl(CACHE_CONTROL);
+                response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.healthmonitoring.common;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent reads concurrently on virtual threads under one deadline.
+ *
+ * Forked tasks run outside the caller's transaction, so each repository call
+ * takes its own connection (still bounded by the DB limiter); their statements count
+ * towards the caller's request ({@link SqlStatementCounter}). {@link #join()}
+ * waits for all of them; the first failure or the deadline cancels the rest.
+ *
+ * <pre>
+ * try (FanOut fan = FanOut.within(timeout)) {
+ *     var a = fan.fork(() -> repoA.load(id));
+ *     var b = fan.fork(() -> repoB.load(id));
+ *     fan.join();
+ *     return combine(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public final class FanOut implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final long deadline;
+
+    private FanOut(Duration timeout) {
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    public static FanOut within(Duration timeout) {
+        return new FanOut(timeout);
+    }
+
+    /**
+     * Start a task; the returned supplier is only valid after {@link #join()}
+     */
+    public <T> Supplier<T> fork(Callable<T> task) {
+        AtomicInteger sqlCount = SqlStatementCounter.current();
+        Future<T> future = executor.submit(() -> SqlStatementCounter.callCounted(sqlCount, task));
+        futures.add(future);
+        return future::resultNow;
+    }
+
+    public void join() {
+        try {
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw new DeadlineExceededException("Timed out waiting for parallel reads");
+        } catch (ExecutionException e) {
+            cancelAll();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted waiting for parallel reads");
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private void cancelAll() {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    public static class DeadlineExceededException extends RuntimeException {
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+}
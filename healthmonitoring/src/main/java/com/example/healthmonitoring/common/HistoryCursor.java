@@ -0,0 +1,62 @@
+package com.example.healthmonitoring.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor over (created_at, id), newest first.
+ * Matches the (user_key, created_at) history indexes, scanned backwards.
+ */
+public record HistoryCursor(LocalDateTime createdAt, long id) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Position before the first row of a range ending at {@code end}
+     */
+    public static HistoryCursor start(LocalDateTime end) {
+        return new HistoryCursor(end, Long.MAX_VALUE);
+    }
+
+    public static HistoryCursor decode(String cursor, LocalDateTime end) {
+        if (cursor == null || cursor.isBlank()) {
+            return start(end);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Build a page from a query that fetched {@code limit + 1} rows
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int limit,
+                                         Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(List.copyOf(items), new HistoryCursor(createdAt.apply(last), id.apply(last)).encode());
+    }
+}
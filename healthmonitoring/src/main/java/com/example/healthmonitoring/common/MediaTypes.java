@@ -0,0 +1,16 @@
+package com.example.healthmonitoring.common;
+
+/**
+ * Vendor media types served alongside plain JSON.
+ */
+public final class MediaTypes {
+
+    /**
+     * Chart payloads as parallel arrays (one array per field, dates as epoch days)
+     * instead of an array of objects; also available as application/cbor.
+     */
+    public static final String COLUMNS_JSON = "application/vnd.healthmonitoring.columns+json";
+
+    private MediaTypes() {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.healthmonitoring.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes query results as newline-delimited JSON while they come off a JDBC cursor.
+ * Rows are detached as soon as they are written, so memory stays flat however long
+ * the result is.
+ */
+@Component
+public class NdjsonStreamer {
+
+    private static final int CLEAR_EVERY = 500;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ObjectWriter writer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+
+    public NdjsonStreamer(ObjectMapper mapper, EntityManager entityManager, PlatformTransactionManager txManager) {
+        this.writer = mapper.writer();
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * @param query repository stream; opened inside a read-only transaction so the
+     *              driver can use a server-side cursor
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> query) {
+        // The body is written on an async thread; its statements still belong to this request
+        AtomicInteger sqlCount = SqlStatementCounter.current();
+        StreamingResponseBody body = out -> SqlStatementCounter.runCounted(sqlCount,
+            () -> readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    write(rows, out);
+                }
+            }));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private <T> void write(Stream<T> rows, OutputStream out) {
+        try {
+            int n = 0;
+            for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                T row = it.next();
+                writer.writeValue(new NonClosingOutputStream(out), row);
+                out.write(NEWLINE);
+                entityManager.detach(row);
+                if (++n % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Jackson closes the target stream after writeValue unless told otherwise
+    private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
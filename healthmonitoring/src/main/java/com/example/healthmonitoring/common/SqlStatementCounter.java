@@ -0,0 +1,117 @@
+package com.example.healthmonitoring.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a request is handled and records
+ * them per endpoint as the {@code http.server.requests.sql.statements} summary, so an
+ * N+1 regression shows up as a jump in statements per request.
+ *
+ * {@link #inspect} is Hibernate's StatementInspector (see MetricsConfig); this class is
+ * the MVC interceptor (see WebConfig). The counter lives on the request and is bound to
+ * the handling thread only while it works on it, so an async request (NDJSON streams)
+ * is recorded once, when it completes. Threads working for the request join its count
+ * explicitly via {@link #current()} and {@link #runCounted} ({@link FanOut}, NdjsonStreamer).
+ */
+@Component
+public class SqlStatementCounter implements AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+    private static final String COUNT_ATTRIBUTE = SqlStatementCounter.class.getName() + ".count";
+
+    private final MeterRegistry registry;
+
+    public SqlStatementCounter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static String inspect(String sql) {
+        AtomicInteger count = CURRENT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Counter of the request handled on this thread, or null
+     */
+    public static AtomicInteger current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run {@code task} with this thread's statements counted towards {@code count} (from
+     * {@link #current()} on the request thread); a null count leaves them uncounted
+     */
+    public static void runCounted(AtomicInteger count, Runnable task) {
+        AtomicInteger previous = bind(count);
+        try {
+            task.run();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    public static <T> T callCounted(AtomicInteger count, Callable<T> task) throws Exception {
+        AtomicInteger previous = bind(count);
+        try {
+            return task.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    private static AtomicInteger bind(AtomicInteger count) {
+        AtomicInteger previous = CURRENT.get();
+        if (count != null) {
+            CURRENT.set(count);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) {
+        // An async dispatch continues the count started by the request's first dispatch
+        AtomicInteger count = (AtomicInteger) req.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = new AtomicInteger();
+            req.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        CURRENT.set(count);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest req, HttpServletResponse res, Object handler) {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest req, HttpServletResponse res, Object handler, Exception ex) {
+        CURRENT.remove();
+        AtomicInteger count = (AtomicInteger) req.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            return;
+        }
+        req.removeAttribute(COUNT_ATTRIBUTE);
+        Object uri = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+            .description("SQL statements prepared while handling a request")
+            .tag("method", req.getMethod())
+            .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+            .register(registry)
+            .record(count.get());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.healthmonitoring.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by {@code K}, for rate limiting.
+ *
+ * Keys are hashed onto lock stripes, each an LRU map holding at most
+ * {@code maxBuckets / stripes} buckets, so memory stays bounded however many
+ * clients show up. The least recently used bucket is the one evicted; an idle
+ * bucket has usually refilled anyway, so recreating it full loses nothing.
+ * Stripes use ReentrantLock so waiting virtual threads don't pin their carrier.
+ */
+public class TokenBuckets<K> {
+
+    private final Stripe[] stripes;
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBuckets(int maxBuckets, int stripeCount) {
+        if (maxBuckets <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("maxBuckets and stripes must be > 0");
+        }
+        int perStripe = Math.max(1, maxBuckets / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe, evictions);
+        }
+    }
+
+    /**
+     * Take one token from the key's bucket (created full on first use).
+     * Returns 0 if a token was taken, otherwise nanos until one will be available.
+     */
+    public long tryAcquire(K key, Limit limit) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        long now = System.nanoTime();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(limit.capacity(), now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                double refill = (now - bucket.refilledAt) / 1e9 * limit.perSecond();
+                bucket.tokens = Math.min(limit.capacity(), bucket.tokens + refill);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / limit.perSecond() * 1e9);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Burst of {@code capacity} requests, refilled at {@code perSecond}
+     */
+    public record Limit(int capacity, double perSecond) {
+        public Limit {
+            if (capacity <= 0 || perSecond <= 0) {
+                throw new IllegalArgumentException("capacity and perSecond must be > 0");
+            }
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    // Not generic, so the stripe array needs no unchecked cast; keys are only hashed and compared
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Object, Bucket> buckets;
+
+        Stripe(int maxSize, LongAdder evictions) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Bucket> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.healthmonitoring.common;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the owner's data version whenever a {@link UserOwned} entity is inserted,
+ * updated or deleted, so no write path has to remember to do it.
+ */
+@Component
+public class UserDataVersionListener {
+
+    private final UserDataVersions versions;
+
+    public UserDataVersionListener(UserDataVersions versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof UserOwned owned) {
+            versions.touch(owned.getUserId());
+        }
+    }
+}
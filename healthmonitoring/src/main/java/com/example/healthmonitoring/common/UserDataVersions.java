@@ -0,0 +1,138 @@
+package com.example.healthmonitoring.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user data version used for conditional GETs.
+ *
+ * The version is users.data_version, bumped once per transaction that writes the
+ * user's data, in that transaction, so it commits or rolls back with the write. Each
+ * instance caches the versions it serves: writes made here apply on commit, writes
+ * made by other instances on the next refresh, which reloads every user bumped within
+ * the refresh window. A 304 for data changed on another instance can therefore be up
+ * to one refresh interval late, as long as write transactions commit within the window
+ * (and never later than the cache TTL). The tag also carries today's date, since
+ * "today" and "this week" views change at midnight without any write.
+ */
+@Slf4j
+@Component
+public class UserDataVersions {
+
+    private final JdbcTemplate jdbc;
+    private final BoundedCache<String, Long> cache;
+    private final Duration refreshWindow;
+
+    // A load that raced a local commit is not cached; see WriteStamps
+    private final WriteStamps writeStamps = new WriteStamps(1024);
+
+    public UserDataVersions(JdbcTemplate jdbc,
+                            @Value("${app.data-version.cache-size:100000}") int cacheSize,
+                            @Value("${app.data-version.ttl:10m}") Duration ttl,
+                            @Value("${app.data-version.refresh-window:1m}") Duration refreshWindow) {
+        this.jdbc = jdbc;
+        this.cache = new BoundedCache<>(cacheSize, ttl);
+        this.refreshWindow = refreshWindow;
+    }
+
+    /**
+     * Record a write for the user. Inside a transaction only its first write per user
+     * bumps the row; the cached version moves when the transaction commits.
+     */
+    public void touch(String userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(userId).forEach(version -> committed(userId, version));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Long> bumped = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (bumped == null) {
+            Map<String, Long> inTransaction = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, inTransaction);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inTransaction.forEach(UserDataVersions.this::committed);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserDataVersions.this);
+                }
+            });
+            bumped = inTransaction;
+        }
+        if (!bumped.containsKey(userId)) {
+            // Empty once the user is deleted; nothing left to version
+            List<Long> version = bump(userId);
+            bumped.put(userId, version.isEmpty() ? 0L : version.get(0));
+        }
+    }
+
+    /**
+     * Weak ETag for the user's current data in one representation (e.g. the Accept
+     * header). Weak so Tomcat may still gzip the body; see server.compression.
+     */
+    public String etag(String userId, String representation) {
+        return "W/\"" + Long.toString(version(userId), 36)
+            + "-" + Long.toString(LocalDate.now().toEpochDay(), 36)
+            + "-" + Integer.toString(representation == null ? 0 : representation.hashCode() & 0x7fffffff, 36) + "\"";
+    }
+
+    /**
+     * Pick up versions bumped by other instances
+     */
+    @Scheduled(fixedDelayString = "${app.data-version.refresh:5s}",
+               initialDelayString = "${app.data-version.refresh:5s}")
+    public void refresh() {
+        List<Map<String, Object>> rows = jdbc.queryForList("""
+            select email, data_version from users
+            where data_version_at > clock_timestamp() - make_interval(secs => ?)
+            """, refreshWindow.toSeconds());
+        for (Map<String, Object> row : rows) {
+            long version = ((Number) row.get("data_version")).longValue();
+            cache.update((String) row.get("email"), cached -> Math.max(cached, version));
+        }
+        log.debug("Data versions refreshed: {} users bumped in the last {}", rows.size(), refreshWindow);
+    }
+
+    private long version(String userId) {
+        Long cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = writeStamps.stamp(userId);
+        List<Long> loaded = jdbc.queryForList("select data_version from users where email = ?", Long.class, userId);
+        long version = loaded.isEmpty() ? 0 : loaded.get(0);
+        if (writeStamps.unchanged(userId, stamp)) {
+            cache.put(userId, version);
+        }
+        return version;
+    }
+
+    private List<Long> bump(String userId) {
+        return jdbc.queryForList("""
+            update users set data_version = data_version + 1, data_version_at = clock_timestamp()
+            where email = ? returning data_version
+            """, Long.class, userId);
+    }
+
+    private void committed(String userId, long version) {
+        writeStamps.bump(userId);
+        cache.update(userId, cached -> Math.max(cached, version));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.healthmonitoring.common;
+
+/**
+ * An entity that belongs to one user; writes to it change that user's data version.
+ */
+public interface UserOwned {
+    String getUserId();
+}
@@ -0,0 +1,51 @@
+package com.example.healthmonitoring.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-key write counters, hashed onto a fixed number of stripes so memory stays
+ * bounded and nothing is ever evicted.
+ *
+ * A cache reads {@link #stamp} before loading and only stores the result if the
+ * stamp is unchanged afterwards, so a load that raced a write is served but not
+ * cached. Keys sharing a stripe only cost each other such a skipped store.
+ */
+public final class WriteStamps {
+
+    private final AtomicLongArray stamps;
+
+    public WriteStamps(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be > 0");
+        }
+        this.stamps = new AtomicLongArray(stripes);
+    }
+
+    /**
+     * Stripe the key counts on, for callers keeping more per-stripe state
+     */
+    public int stripe(String key) {
+        return (key.hashCode() & 0x7fffffff) % stamps.length();
+    }
+
+    public long stamp(String key) {
+        return stamps.get(stripe(key));
+    }
+
+    /**
+     * True if no write was recorded for the key's stripe since {@code stamp} was read
+     */
+    public boolean unchanged(String key, long stamp) {
+        return stamps.get(stripe(key)) == stamp;
+    }
+
+    public void bump(String key) {
+        stamps.incrementAndGet(stripe(key));
+    }
+
+    public void bumpAll() {
+        for (int i = 0; i < stamps.length(); i++) {
+            stamps.incrementAndGet(i);
+        }
+    }
+}
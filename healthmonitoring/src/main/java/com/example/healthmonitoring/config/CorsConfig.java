@@ -1,50 +0,0 @@
-package com.example.healthmonitoring.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
-import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-
-import java.util.Arrays;
-
-@Configuration
-public class CorsConfig {
-
-    @Bean
-    public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration configuration = new CorsConfiguration();
-        
-        // Allow Flutter app origins
-        configuration.setAllowedOrigins(Arrays.asList(
-            "http://localhost:*",
-            "http://127.0.0.1:*",
-            "http://10.0.2.2:8080", // Android emulator
-            "http://192.168.*.*:*",  // Local network
-            "*" // For development - restrict in production
-        ));
-        
-        configuration.setAllowedMethods(Arrays.asList(
-            "GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"
-        ));
-        
-        configuration.setAllowedHeaders(Arrays.asList(
-            "Authorization",
-            "Content-Type",
-            "Accept",
-            "X-Requested-With"
-        ));
-        
-        configuration.setExposedHeaders(Arrays.asList(
-            "Authorization"
-        ));
-        
-        configuration.setAllowCredentials(false); // Set to true if using cookies
-        configuration.setMaxAge(3600L);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", configuration);
-        
-        return source;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.healthmonitoring.config;
+
+import com.example.healthmonitoring.common.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the Hikari pool in a {@link ConcurrencyLimitingDataSource}.
+ * The limit defaults to the pool size, so waiters queue in the semaphore
+ * rather than inside Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceLimitConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceLimiter(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int limit = env.getProperty("app.db.limiter.max-concurrency", Integer.class, poolSize);
+                Duration timeout = env.getProperty("app.db.limiter.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+                return new ConcurrencyLimitingDataSource(ds, limit, timeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.healthmonitoring.config;
+
+import com.example.healthmonitoring.common.BoundedCache;
+import com.example.healthmonitoring.common.ConcurrencyLimitingDataSource;
+import com.example.healthmonitoring.common.SqlStatementCounter;
+import com.example.healthmonitoring.profile.service.HealthInsightsCache;
+import com.example.healthmonitoring.security.JwtService;
+import com.example.healthmonitoring.security.PasswordHasher;
+import com.example.healthmonitoring.security.RateLimitFilter;
+import com.example.healthmonitoring.security.UserExistenceCache;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Metrics beyond what Actuator binds by itself (HTTP requests, repository invocations,
+ * Hikari, JVM): SQL statements per request and the app's in-process pools, limiters
+ * and caches. Everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCounting() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+            (StatementInspector) SqlStatementCounter::inspect);
+    }
+
+    @Bean
+    MeterBinder passwordHashingMetrics(PasswordHasher hasher) {
+        return registry -> {
+            Gauge.builder("password.hashing.queued", hasher, h -> h.stats().queued())
+                .description("Hashes waiting for a hashing thread").register(registry);
+            Gauge.builder("password.hashing.active", hasher, h -> h.stats().active()).register(registry);
+            FunctionTimer.builder("password.hashing", hasher,
+                    h -> h.stats().hashes(), h -> h.stats().avgMillis() * h.stats().hashes(), TimeUnit.MILLISECONDS)
+                .register(registry);
+            FunctionCounter.builder("password.hashing.rejected", hasher, h -> h.stats().rejected())
+                .description("Hashes refused because the pool was saturated (503)").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder rateLimitMetrics(RateLimitFilter rateLimit) {
+        return registry -> {
+            Gauge.builder("rate.limit.buckets", rateLimit, r -> r.stats().buckets()).register(registry);
+            FunctionCounter.builder("rate.limit.evictions", rateLimit, r -> r.stats().evictions()).register(registry);
+            FunctionCounter.builder("rate.limit.limited", rateLimit, r -> r.stats().limited())
+                .description("Requests answered 429").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder dbLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limiter) {
+                Gauge.builder("db.limiter.in.use", limiter, l -> l.stats().inUse()).register(registry);
+                Gauge.builder("db.limiter.waiting", limiter, l -> l.stats().waiting()).register(registry);
+                FunctionCounter.builder("db.limiter.rejected", limiter, l -> l.stats().rejected()).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder cacheMetrics(TodayTotalsCache today, HealthInsightsCache insights, UserExistenceCache users,
+                             JwtService jwt) {
+        return registry -> {
+            bindCache(registry, "today-totals", today, TodayTotalsCache::stats);
+            bindCache(registry, "health-insights", insights, HealthInsightsCache::stats);
+            bindCache(registry, "known-users", users, UserExistenceCache::stats);
+            bindCache(registry, "verified-tokens", jwt, JwtService::cacheStats);
+        };
+    }
+
+    // Meters hold their state object weakly, so it must be the (singleton) cache itself
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+                                      Function<T, BoundedCache.Stats> stats) {
+        Gauge.builder("cache.size", cache, c -> stats.apply(c).size()).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).hits())
+            .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).misses())
+            .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> stats.apply(c).evictions())
+            .tag("cache", name).register(registry);
+    }
+}
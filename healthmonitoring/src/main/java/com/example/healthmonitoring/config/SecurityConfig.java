@@ -1,5 +1,7 @@
 package com.example.healthmonitoring.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,6 +16,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.example.healthmonitoring.security.JwtAuthFilter;
+import com.example.healthmonitoring.security.RateLimitFilter;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,14 +26,19 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
+    /**
+     * Stored hashes below {@code strength} are redone on the user's next login (see AuthController)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -48,6 +56,10 @@ public class SecurityConfig {
             
             // Authorization rules
             .authorizeHttpRequests(auth -> auth
+                // Second dispatch of an async request (NDJSON streams); the first was already
+                // authorized, and the JWT filter doesn't run again to authenticate it
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api/v1/auth/logout-all").authenticated()
                 // Public endpoints - NO authentication required
                 .requestMatchers(
                     "/api/v1/auth/**",
@@ -56,18 +68,26 @@ public class SecurityConfig {
                     "/swagger-ui/**",
                     "/swagger-ui.html",
                     "/v3/api-docs/**",
-                    "/error"
+                    "/error",
+                    // Scraped without a token; put management.server.port on an internal port in production
+                    "/actuator/health",
+                    "/actuator/prometheus"
                 ).permitAll()
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             )
             
             // Add JWT filter before UsernamePasswordAuthenticationFilter
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limits after it, so authenticated requests are limited per user
+            .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
 
+    /**
+     * The application's only CORS configuration, used by the security filter chain
+     */
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -83,8 +103,8 @@ public class SecurityConfig {
         // Allow all headers
         configuration.setAllowedHeaders(List.of("*"));
         
-        // Expose Authorization header
-        configuration.setExposedHeaders(List.of("Authorization"));
+        // Headers browser clients read: conditional GETs (ETag) and 429/503 backoff (Retry-After)
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Retry-After"));
         
         // Allow credentials
         configuration.setAllowCredentials(false);
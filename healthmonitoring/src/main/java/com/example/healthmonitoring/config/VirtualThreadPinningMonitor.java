@@ -0,0 +1,73 @@
+package com.example.healthmonitoring.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier (blocking inside
+ * synchronized or native code) for longer than the threshold, using the
+ * in-process JFR jdk.VirtualThreadPinned event. Off by default; for a one-off
+ * check, -Djdk.tracePinnedThreads=short does the same without JFR.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-diagnostics", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final int MAX_FRAMES = 12;
+
+    private final Duration threshold;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::report);
+        stream.startAsync();
+        log.info("Virtual thread pinning diagnostics on (threshold {})", threshold);
+    }
+
+    public long pinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedEvents.increment();
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> stack = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(stack.size(), MAX_FRAMES); i++) {
+                RecordedFrame f = stack.get(i);
+                frames.append("\n    at ").append(f.getMethod().getType().getName())
+                    .append('.').append(f.getMethod().getName())
+                    .append(':').append(f.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.healthmonitoring.config;
+
+import com.example.healthmonitoring.common.ConditionalGetInterceptor;
+import com.example.healthmonitoring.common.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGet;
+    private final SqlStatementCounter sqlStatements;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Endpoints clients poll; everything they return is covered by the user's data version
+        registry.addInterceptor(conditionalGet).addPathPatterns(
+            "/api/v1/profile/**",
+            "/api/v1/reminders/**",
+            "/api/v1/statistics/**",
+            "/api/v1/dashboard/**");
+        registry.addInterceptor(sqlStatements).addPathPatterns("/api/**");
+    }
+}
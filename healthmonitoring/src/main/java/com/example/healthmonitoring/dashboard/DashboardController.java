@@ -1,26 +1,50 @@
 package com.example.healthmonitoring.dashboard;
 
-import com.example.healthmonitoring.activity.repo.ActivityLogRepository;
-import com.example.healthmonitoring.meal.repo.MealLogRepository;
-import com.example.healthmonitoring.water.repo.WaterLogRepository;
+import com.example.healthmonitoring.bmi.entity.WeightLog;
+import com.example.healthmonitoring.bmi.repo.WeightLogRepository;
+import com.example.healthmonitoring.common.FanOut;
+import com.example.healthmonitoring.dashboard.HomeContext.Section;
 import com.example.healthmonitoring.profile.repo.UserProfileRepository;
-import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.service.ProfileService;
+import com.example.healthmonitoring.security.AuthUser;
+import com.example.healthmonitoring.statistics.DailyRollupService;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
+import com.example.healthmonitoring.water.controller.WaterController;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
-@RequiredArgsConstructor
 public class DashboardController {
 
-    private final WaterLogRepository waterRepo;
-    private final MealLogRepository mealRepo;
-    private final ActivityLogRepository activityRepo;
+    private final TodayTotalsCache todayCache;
+    private final DailyRollupService rollupService;
     private final UserProfileRepository profileRepo;
+    private final ProfileService profileService;
+    private final WeightLogRepository weightRepo;
+    private final Duration readTimeout;
+
+    public DashboardController(TodayTotalsCache todayCache,
+                               DailyRollupService rollupService,
+                               UserProfileRepository profileRepo,
+                               ProfileService profileService,
+                               WeightLogRepository weightRepo,
+                               @Value("${app.fanout.timeout:2s}") Duration readTimeout) {
+        this.todayCache = todayCache;
+        this.rollupService = rollupService;
+        this.profileRepo = profileRepo;
+        this.profileService = profileService;
+        this.weightRepo = weightRepo;
+        this.readTimeout = readTimeout;
+    }
 
     private String getUserId(Authentication auth) {
         return auth.getName();
@@ -31,24 +55,63 @@ public class DashboardController {
      */
     @GetMapping("/today")
     public TodayDashboard getToday(Authentication auth) {
-        String userId = getUserId(auth);
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.plusDays(1).atStartOfDay().minusNanos(1);
+        // Served from the in-memory today snapshot (totals + profile goals)
+        return todayDashboard(todayCache.get(getUserId(auth)));
+    }
 
-        // Get actual values
-        long waterMl = waterRepo.sumAmountByUserAndRange(userId, start, end);
-        int caloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-        int caloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
+    /**
+     * Get week overview (last 7 days)
+     */
+    @GetMapping("/week")
+    public WeekOverview getWeekOverview(Authentication auth) {
+        return weekOverview(getUserId(auth));
+    }
+
+    /**
+     * Everything the home screen shows in one response: today, week, insights,
+     * water and latest weight. {@code fields} (e.g. "today,water") limits the
+     * response to those sections; the rest are neither computed nor returned.
+     */
+    @GetMapping("/home")
+    public HomeDashboard getHome(Authentication auth, @RequestParam(required = false) String fields) {
+        HomeContext ctx = new HomeContext(getUserId(auth), HomeContext.parse(fields), profileRepo, profileService, todayCache);
+        long userKey = AuthUser.of(auth).key();
+        HomeDashboard.HomeDashboardBuilder home = HomeDashboard.builder();
+
+        try (FanOut fan = FanOut.within(readTimeout)) {
+            // Week and weight don't touch the profile; read them while this thread does the rest
+            Supplier<WeekOverview> week = ctx.wants(Section.WEEK) ? fan.fork(() -> weekOverview(ctx.userId())) : null;
+            Supplier<WeightLog> weight = ctx.wants(Section.WEIGHT)
+                ? fan.fork(() -> weightRepo.findFirstByUserKeyOrderByCreatedAtDesc(userKey).orElse(null))
+                : null;
+
+            if (ctx.wants(Section.INSIGHTS)) {
+                home.insights(ctx.insights());
+            }
+            if (ctx.wants(Section.TODAY)) {
+                home.today(todayDashboard(ctx.today()));
+            }
+            if (ctx.wants(Section.WATER)) {
+                home.water(WaterController.TodayWaterResponse.of(ctx.today()));
+            }
+
+            fan.join();
+            if (week != null) home.week(week.get());
+            if (weight != null) home.latestWeight(weight.get());
+        }
+        return home.build();
+    }
+
+    private static TodayDashboard todayDashboard(TodayTotalsCache.TodaySnapshot snapshot) {
+        LocalDate today = snapshot.day();
+
+        long waterMl = snapshot.waterMl();
+        int caloriesIn = snapshot.kcalIn();
+        int caloriesOut = snapshot.kcalOut();
         int netCalories = caloriesIn - caloriesOut;
 
-        // Get goals from profile
-        UserProfile profile = profileRepo.findByUserId(userId).orElse(null);
-        
-        int waterGoal = profile != null && profile.getDailyWaterGoalMl() != null 
-            ? profile.getDailyWaterGoalMl() : 2000;
-        int calorieGoal = profile != null && profile.getDailyCalorieGoal() != null 
-            ? profile.getDailyCalorieGoal() : 2000;
+        int waterGoal = snapshot.waterGoalMl() != null ? snapshot.waterGoalMl() : 2000;
+        int calorieGoal = snapshot.calorieGoal() != null ? snapshot.calorieGoal() : 2000;
 
         // Calculate percentages
         double waterPercentage = (double) waterMl / waterGoal * 100;
@@ -70,30 +133,23 @@ public class DashboardController {
                 .remaining(calorieGoal - caloriesIn)
                 .percentage(Math.min(caloriePercentage, 100.0))
                 .build())
-            .hasProfile(profile != null)
+            .hasProfile(snapshot.hasProfile())
             .build();
     }
 
-    /**
-     * Get week overview (last 7 days)
-     */
-    @GetMapping("/week")
-    public WeekOverview getWeekOverview(Authentication auth) {
-        String userId = getUserId(auth);
+    private WeekOverview weekOverview(String userId) {
         LocalDate today = LocalDate.now();
         LocalDate weekStart = today.minusDays(6);
 
-        LocalDateTime start = weekStart.atStartOfDay();
-        LocalDateTime end = today.plusDays(1).atStartOfDay().minusNanos(1);
-
-        long totalWater = waterRepo.sumAmountByUserAndRange(userId, start, end);
-        int totalCaloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-        int totalCaloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
+        List<DailyRollupService.DayTotals> days = rollupService.rollup(userId, weekStart, today);
+        int totalWater = days.stream().mapToInt(DailyRollupService.DayTotals::waterMl).sum();
+        int totalCaloriesIn = days.stream().mapToInt(DailyRollupService.DayTotals::caloriesIn).sum();
+        int totalCaloriesOut = days.stream().mapToInt(DailyRollupService.DayTotals::caloriesOut).sum();
 
         return WeekOverview.builder()
             .weekStart(weekStart)
             .weekEnd(today)
-            .avgWaterPerDay((int) totalWater / 7)
+            .avgWaterPerDay(totalWater / 7)
             .avgCaloriesInPerDay(totalCaloriesIn / 7)
             .avgCaloriesOutPerDay(totalCaloriesOut / 7)
             .totalCaloriesIn(totalCaloriesIn)
@@ -102,6 +158,17 @@ public class DashboardController {
     }
 
     // DTOs
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HomeDashboard {
+        private TodayDashboard today;
+        private WeekOverview week;
+        private ProfileService.HealthInsights insights;
+        private WaterController.TodayWaterResponse water;
+        private WeightLog latestWeight;
+    }
+
     @Data
     @Builder
     public static class TodayDashboard {
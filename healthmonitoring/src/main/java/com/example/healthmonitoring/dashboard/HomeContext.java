@@ -0,0 +1,94 @@
+package com.example.healthmonitoring.dashboard;
+
+import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.profile.service.ProfileService;
+import com.example.healthmonitoring.profile.service.ProfileService.HealthInsights;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Data shared by the sections of one /dashboard/home request.
+ * Insights and the today snapshot come from their caches; the profile is only
+ * loaded on a miss, at most once. Lives for a single request on a single thread.
+ */
+final class HomeContext {
+
+    enum Section { TODAY, WEEK, INSIGHTS, WATER, WEIGHT }
+
+    private final String userId;
+    private final Set<Section> sections;
+    private final UserProfileRepository profileRepo;
+    private final ProfileService profileService;
+    private final TodayTotalsCache todayCache;
+
+    private UserProfile profile;
+    private boolean profileLoaded;
+    private TodayTotalsCache.TodaySnapshot today;
+
+    HomeContext(String userId, Set<Section> sections, UserProfileRepository profileRepo,
+                ProfileService profileService, TodayTotalsCache todayCache) {
+        this.userId = userId;
+        this.sections = sections;
+        this.profileRepo = profileRepo;
+        this.profileService = profileService;
+        this.todayCache = todayCache;
+    }
+
+    /**
+     * Parse a comma-separated field list; null or blank selects every section
+     */
+    static Set<Section> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(Section.class);
+        }
+        Set<Section> selected = EnumSet.noneOf(Section.class);
+        for (String field : fields.split(",")) {
+            String name = field.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            try {
+                selected.add(Section.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field: " + field.trim());
+            }
+        }
+        return selected;
+    }
+
+    String userId() {
+        return userId;
+    }
+
+    boolean wants(Section section) {
+        return sections.contains(section);
+    }
+
+    /**
+     * The user's health insights, or null if they have not created a profile
+     */
+    HealthInsights insights() {
+        return profileService.getHealthInsights(userId, this::profile);
+    }
+
+    /**
+     * The user's profile, or null if they have not created one
+     */
+    private UserProfile profile() {
+        if (!profileLoaded) {
+            profile = profileRepo.findByUserId(userId).orElse(null);
+            profileLoaded = true;
+        }
+        return profile;
+    }
+
+    TodayTotalsCache.TodaySnapshot today() {
+        if (today == null) {
+            // A miss reuses the profile if an insights miss already loaded it
+            today = profileLoaded ? todayCache.get(userId, profile) : todayCache.get(userId);
+        }
+        return today;
+    }
+}
@@ -5,20 +5,27 @@ import java.util.List;
 import org.springframework.web.bind.annotation.*;
 
 import com.example.healthmonitoring.meal.entity.Food;
-import com.example.healthmonitoring.meal.repo.FoodRepository;
+import com.example.healthmonitoring.meal.service.FoodCatalog;
+import com.example.healthmonitoring.meal.service.FoodSearchService;
 
 @RestController
 @RequestMapping("/api/v1/foods")
 public class FoodController {
-    private final FoodRepository repo;
-    public FoodController(FoodRepository repo){ this.repo = repo; }
+    private final FoodSearchService search;
+    private final FoodCatalog catalog;
+    public FoodController(FoodSearchService search, FoodCatalog catalog){ this.search = search; this.catalog = catalog; }
 
     @GetMapping
-    public List<Food> list(@RequestParam(required=false) String q){
-        if (q == null || q.isBlank()) return repo.findAll();
-        final var lower = q.toLowerCase();
-        return repo.findAll().stream()
-                .filter(f -> f.getName().toLowerCase().contains(lower))
-                .toList();
+    public List<Food> list(@RequestParam(required=false) String q,
+                           @RequestParam(defaultValue="false") boolean fold,
+                           @RequestParam(defaultValue="50") int limit,
+                           @RequestParam(defaultValue="0") int offset){
+        return search.search(q, fold, limit, offset);
+    }
+
+    // Typeahead served from the in-memory catalog (diacritic-insensitive prefix match)
+    @GetMapping("/suggest")
+    public List<Food> suggest(@RequestParam String q, @RequestParam(defaultValue="10") int k){
+        return catalog.suggest(q, Math.max(1, Math.min(k, 50)));
     }
 }
@@ -3,14 +3,25 @@ package com.example.healthmonitoring.meal.controller;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.healthmonitoring.common.CursorPage;
+import com.example.healthmonitoring.common.HistoryCursor;
+import com.example.healthmonitoring.common.NdjsonStreamer;
 import com.example.healthmonitoring.meal.entity.MealLog;
 import com.example.healthmonitoring.meal.repo.FoodRepository;
 import com.example.healthmonitoring.meal.repo.MealLogRepository;
+import com.example.healthmonitoring.meal.service.FoodCatalog;
+import com.example.healthmonitoring.security.AuthUser;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
 
 @RestController
 @RequestMapping("/api/v1/meal")
@@ -21,31 +32,40 @@ public class MealController {
 
     private final MealLogRepository mealRepo;
     private final FoodRepository foodRepo;
+    private final FoodCatalog foodCatalog;
+    private final DailyTotalsService totals;
+    private final TodayTotalsCache todayCache;
+    private final NdjsonStreamer ndjson;
 
-    public MealController(MealLogRepository mealRepo, FoodRepository foodRepo) {
-        this.mealRepo = mealRepo; this.foodRepo = foodRepo;
+    public MealController(MealLogRepository mealRepo, FoodRepository foodRepo, FoodCatalog foodCatalog,
+                          DailyTotalsService totals, TodayTotalsCache todayCache, NdjsonStreamer ndjson) {
+        this.mealRepo = mealRepo; this.foodRepo = foodRepo; this.foodCatalog = foodCatalog;
+        this.totals = totals; this.todayCache = todayCache; this.ndjson = ndjson;
     }
     private String uid(Authentication a){ return a.getName(); }
+    private long key(Authentication a){ return AuthUser.of(a).key(); }
 
     @PostMapping
+    @Transactional
     public MealLog add(@RequestBody CreateReq req, Authentication a){
         if (req == null || req.servings <= 0) throw new IllegalArgumentException("servings must be > 0");
-        var food = foodRepo.findById(req.foodId).orElseThrow();
+        // Catalog first; fall back to the DB for foods added since the last refresh
+        var food = foodCatalog.find(req.foodId)
+                .orElseGet(() -> foodRepo.findById(req.foodId).orElseThrow());
         var log = new MealLog();
         log.setUserId(uid(a));
+        log.setUserKey(key(a));
         log.setFood(food);
         log.setServings(req.servings);
         log.setTotalKcal((int)Math.round(food.getKcalPerServing() * req.servings));
-        return mealRepo.save(log);
+        var saved = mealRepo.save(log);
+        totals.mealLogged(saved);
+        return saved;
     }
 
     @GetMapping("/today/total")
     public TodayKcalRes todayTotal(Authentication a){
-        var d = LocalDate.now();
-        var s = d.atStartOfDay();
-        var e = d.plusDays(1).atStartOfDay().minusNanos(1);
-        int total = mealRepo.sumKcalByUserAndRange(uid(a), s, e);
-        return new TodayKcalRes(total);
+        return new TodayKcalRes(todayCache.get(uid(a)).kcalIn());
     }
 
     @GetMapping("/history")
@@ -55,14 +75,44 @@ public class MealController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
         var s = from.atStartOfDay();
         var e = to.plusDays(1).atStartOfDay().minusNanos(1);
-        return mealRepo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(uid(a), s, e);
+        return mealRepo.findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(key(a), s, e);
+    }
+
+    /** Keyset-paginated history; pass back {@code nextCursor} to get the following page */
+    @GetMapping("/history/page")
+    public CursorPage<MealLog> historyPage(
+            Authentication a,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit){
+        var s = from.atStartOfDay();
+        var e = to.plusDays(1).atStartOfDay().minusNanos(1);
+        var after = HistoryCursor.decode(cursor, e);
+        int n = HistoryCursor.clampLimit(limit);
+        var rows = mealRepo.findPage(key(a), s, e, after.createdAt(), after.id(), Limit.of(n + 1));
+        return HistoryCursor.page(rows, n, MealLog::getCreatedAt, MealLog::getId);
+    }
+
+    /** Whole range as NDJSON, one log per line, newest first */
+    @GetMapping(value = "/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> historyStream(
+            Authentication a,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        var userKey = key(a);
+        var s = from.atStartOfDay();
+        var e = to.plusDays(1).atStartOfDay().minusNanos(1);
+        return ndjson.stream(() -> mealRepo.streamRange(userKey, s, e));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void delete(@PathVariable Long id, Authentication a){
         var m = mealRepo.findById(id).orElseThrow();
         if (!m.getUserId().equals(uid(a))) throw new RuntimeException("forbidden");
-        mealRepo.deleteById(id);
+        mealRepo.delete(m);
+        totals.mealDeleted(m);
     }
 }
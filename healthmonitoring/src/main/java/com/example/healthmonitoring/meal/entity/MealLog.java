@@ -1,18 +1,26 @@
 package com.example.healthmonitoring.meal.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners(UserDataVersionListener.class)
 @Table(name = "meal_logs")
-public class MealLog {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+public class MealLog implements UserOwned {
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meal_logs_seq")
+    @SequenceGenerator(name = "meal_logs_seq", sequenceName = "meal_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable=false)
     private String userId;
 
+    @Column(name = "user_key")
+    private Long userKey;   // users.user_key
+
     @ManyToOne(optional=false)
     private Food food;
 
@@ -31,6 +39,8 @@ public class MealLog {
     public Long getId() { return id; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
+    @JsonIgnore public Long getUserKey() { return userKey; }
+    public void setUserKey(Long userKey) { this.userKey = userKey; }
     public Food getFood() { return food; }
     public void setFood(Food food) { this.food = food; }
     public double getServings() { return servings; }
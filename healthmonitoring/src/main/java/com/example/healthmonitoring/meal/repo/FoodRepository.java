@@ -1,11 +1,55 @@
 package com.example.healthmonitoring.meal.repo;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.healthmonitoring.meal.entity.Food;
 
 public interface FoodRepository extends JpaRepository<Food, Long> {
     Optional<Food> findByNameIgnoreCase(String name);
+
+    @Query(value = """
+           select * from foods
+           order by name
+           limit ?1 offset ?2
+           """, nativeQuery = true)
+    List<Food> findPage(int limit, int offset);
+
+    // Short terms: prefix match on idx_foods_name_prefix
+    @Query(value = """
+           select * from foods
+           where lower(name) like ?1
+           order by name
+           limit ?2 offset ?3
+           """, nativeQuery = true)
+    List<Food> searchByPrefix(String prefixPattern, int limit, int offset);
+
+    @Query(value = """
+           select * from foods
+           where f_unaccent(lower(name)) like f_unaccent(?1)
+           order by name
+           limit ?2 offset ?3
+           """, nativeQuery = true)
+    List<Food> searchByPrefixUnaccent(String prefixPattern, int limit, int offset);
+
+    // Substring match on idx_foods_name_trgm; prefix hits first, then trigram similarity
+    @Query(value = """
+           select * from foods
+           where lower(name) like ?1
+           order by lower(name) like ?2 desc, similarity(lower(name), ?3) desc, name
+           limit ?4 offset ?5
+           """, nativeQuery = true)
+    List<Food> searchByName(String containsPattern, String prefixPattern, String term, int limit, int offset);
+
+    @Query(value = """
+           select * from foods
+           where f_unaccent(lower(name)) like f_unaccent(?1)
+           order by f_unaccent(lower(name)) like f_unaccent(?2) desc,
+                    similarity(f_unaccent(lower(name)), f_unaccent(?3)) desc, name
+           limit ?4 offset ?5
+           """, nativeQuery = true)
+    List<Food> searchByNameUnaccent(String containsPattern, String prefixPattern, String term, int limit, int offset);
 }
@@ -2,21 +2,53 @@ package com.example.healthmonitoring.meal.repo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.healthmonitoring.meal.entity.MealLog;
 
 public interface MealLogRepository extends JpaRepository<MealLog, Long> {
 
-    List<MealLog> findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(
-        String userId, LocalDateTime start, LocalDateTime end);
+    List<MealLog> findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(
+        long userKey, LocalDateTime start, LocalDateTime end);
 
     @Query("""
            select coalesce(sum(m.totalKcal), 0)
            from MealLog m
-           where m.userId = ?1 and m.createdAt between ?2 and ?3
+           where m.userKey = ?1 and m.createdAt between ?2 and ?3
            """)
-    int sumKcalByUserAndRange(String userId, LocalDateTime start, LocalDateTime end);
+    int sumKcalByUserAndRange(long userKey, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Keyset page, newest first: rows strictly after the cursor ({@code ?4}, {@code ?5}).
+     * Callers ask for one row more than they return to detect the last page.
+     */
+    @Query("""
+           select m from MealLog m join fetch m.food
+           where m.userKey = ?1 and m.createdAt between ?2 and ?3
+             and (m.createdAt < ?4 or (m.createdAt = ?4 and m.id < ?5))
+           order by m.createdAt desc, m.id desc
+           """)
+    List<MealLog> findPage(long userKey, LocalDateTime start, LocalDateTime end,
+                         LocalDateTime cursorAt, long cursorId, Limit limit);
+
+    /**
+     * Whole range as a forward-only cursor; must be consumed inside a transaction
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           select m from MealLog m join fetch m.food
+           where m.userKey = ?1 and m.createdAt between ?2 and ?3
+           order by m.createdAt desc, m.id desc
+           """)
+    Stream<MealLog> streamRange(long userKey, LocalDateTime start, LocalDateTime end);
 }
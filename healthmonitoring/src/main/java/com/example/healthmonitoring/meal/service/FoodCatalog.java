@@ -0,0 +1,184 @@
+package com.example.healthmonitoring.meal.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.healthmonitoring.meal.entity.Food;
+import com.example.healthmonitoring.meal.repo.FoodRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only, in-memory copy of the foods table for typeahead and id lookups.
+ *
+ * Every word suffix of each normalized name ("com ga" -> "com ga", "ga") is a key
+ * in one sorted array, so a prefix query is a binary search plus a scan of the
+ * contiguous matching range. Names are lowercased and stripped of diacritics.
+ * Refreshes build a new snapshot and swap it in; readers never lock.
+ */
+@Slf4j
+@Component
+public class FoodCatalog {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final FoodRepository repo;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public FoodCatalog(FoodRepository repo) { this.repo = repo; }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.foods.catalog-refresh:10m}", initialDelayString = "${app.foods.catalog-refresh:10m}")
+    public void refresh() {
+        Snapshot next = Snapshot.build(repo.findAll());
+        snapshot = next;
+        log.debug("Food catalog loaded: {} foods, {} keys", next.foods.length, next.keys.length);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != Snapshot.EMPTY;
+    }
+
+    public Optional<Food> find(Long id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    /**
+     * Up to {@code k} foods whose name (or a word in it) starts with {@code q}.
+     * Whole-name prefix matches rank before word matches, then shorter names first.
+     */
+    public List<Food> suggest(String q, int k) {
+        Snapshot s = snapshot;
+        String term = normalize(q);
+        if (term.isEmpty() || k <= 0 || s.keys.length == 0) return List.of();
+
+        int[] best = new int[k];      // food index
+        long[] bestScore = new long[k];
+        int size = 0;
+
+        for (int i = lowerBound(s.keys, term); i < s.keys.length && s.keys[i].startsWith(term); i++) {
+            int food = s.keyFood[i];
+            long score = ((long) s.keyWord[i] > 0 ? 1L << 62 : 0L)
+                | ((long) s.names[food].length() << 32)
+                | i;
+
+            int existing = indexOf(best, size, food);
+            if (existing >= 0) {
+                if (score >= bestScore[existing]) continue;
+                // Remove the worse entry for this food before re-inserting
+                System.arraycopy(best, existing + 1, best, existing, size - existing - 1);
+                System.arraycopy(bestScore, existing + 1, bestScore, existing, size - existing - 1);
+                size--;
+            } else if (size == k && score >= bestScore[k - 1]) {
+                continue;
+            }
+
+            int pos = size < k ? size : k - 1;
+            while (pos > 0 && bestScore[pos - 1] > score) {
+                best[pos] = best[pos - 1];
+                bestScore[pos] = bestScore[pos - 1];
+                pos--;
+            }
+            best[pos] = food;
+            bestScore[pos] = score;
+            if (size < k) size++;
+        }
+
+        List<Food> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) result.add(s.foods[best[i]]);
+        return result;
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        String lower = s.trim().toLowerCase(Locale.ROOT).replace('đ', 'd');
+        String stripped = MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped).replaceAll(" ");
+    }
+
+    private static int lowerBound(String[] keys, String term) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(term) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int indexOf(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) if (values[i] == value) return i;
+        return -1;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Food[0], new String[0], new String[0],
+            new int[0], new int[0], Map.of());
+
+        final Food[] foods;
+        final String[] names;     // normalized, parallel to foods
+        final String[] keys;      // sorted word suffixes
+        final int[] keyFood;      // parallel to keys
+        final int[] keyWord;      // word position the key starts at
+        final Map<Long, Food> byId;
+
+        private Snapshot(Food[] foods, String[] names, String[] keys, int[] keyFood, int[] keyWord,
+                         Map<Long, Food> byId) {
+            this.foods = foods;
+            this.names = names;
+            this.keys = keys;
+            this.keyFood = keyFood;
+            this.keyWord = keyWord;
+            this.byId = byId;
+        }
+
+        static Snapshot build(List<Food> all) {
+            Food[] foods = all.toArray(new Food[0]);
+            String[] names = new String[foods.length];
+            Map<Long, Food> byId = new HashMap<>(foods.length * 2);
+            List<Key> keys = new ArrayList<>(foods.length * 2);
+
+            for (int f = 0; f < foods.length; f++) {
+                names[f] = normalize(foods[f].getName());
+                byId.put(foods[f].getId(), foods[f]);
+                String name = names[f];
+                int word = 0;
+                for (int start = 0; start < name.length(); ) {
+                    keys.add(new Key(name.substring(start), f, word++));
+                    int space = name.indexOf(' ', start);
+                    if (space < 0) break;
+                    start = space + 1;
+                }
+            }
+
+            Key[] sorted = keys.toArray(new Key[0]);
+            Arrays.sort(sorted, Comparator.comparing(Key::text));
+
+            String[] keyText = new String[sorted.length];
+            int[] keyFood = new int[sorted.length];
+            int[] keyWord = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keyText[i] = sorted[i].text();
+                keyFood[i] = sorted[i].food();
+                keyWord[i] = sorted[i].word();
+            }
+            return new Snapshot(foods, names, keyText, keyFood, keyWord, Map.copyOf(byId));
+        }
+    }
+
+    private record Key(String text, int food, int word) {}
+}
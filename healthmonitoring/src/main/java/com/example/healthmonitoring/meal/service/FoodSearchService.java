@@ -0,0 +1,52 @@
+package com.example.healthmonitoring.meal.service;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.stereotype.Service;
+
+import com.example.healthmonitoring.meal.entity.Food;
+import com.example.healthmonitoring.meal.repo.FoodRepository;
+
+@Service
+public class FoodSearchService {
+
+    public static final int MAX_LIMIT = 200;
+
+    // Below this length trigrams can't narrow the search, so only prefixes are matched
+    private static final int MIN_TRIGRAM_TERM = 3;
+
+    private final FoodRepository repo;
+
+    public FoodSearchService(FoodRepository repo) { this.repo = repo; }
+
+    /**
+     * Ranked, paged name search served from the foods name indexes.
+     * With {@code fold}, diacritics are ignored on both sides ("pho" matches "Phở").
+     */
+    public List<Food> search(String q, boolean fold, int limit, int offset) {
+        int lim = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int off = Math.max(0, offset);
+
+        if (q == null || q.isBlank()) return repo.findPage(lim, off);
+
+        String term = q.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(term);
+        String prefix = escaped + "%";
+
+        if (term.length() < MIN_TRIGRAM_TERM) {
+            return fold
+                ? repo.searchByPrefixUnaccent(prefix, lim, off)
+                : repo.searchByPrefix(prefix, lim, off);
+        }
+
+        String contains = "%" + escaped + "%";
+        return fold
+            ? repo.searchByNameUnaccent(contains, prefix, term, lim, off)
+            : repo.searchByName(contains, prefix, term, lim, off);
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
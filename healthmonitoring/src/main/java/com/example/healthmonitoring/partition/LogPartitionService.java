@@ -0,0 +1,225 @@
+package com.example.healthmonitoring.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps water_logs, meal_logs and activity_logs range-partitioned by month on created_at.
+ *
+ * schema.sql turns each table into a partitioned parent whose DEFAULT partition holds
+ * the rows written before. Maintenance (at startup, then on a cron) creates partitions
+ * for the current and coming months and moves every month found in the DEFAULT
+ * partition (old data, back-dated sync imports) into its own partition. With a
+ * retention set, months older than it are detached, written to a gzipped CSV in the
+ * archive directory and dropped; daily_user_totals keeps their sums.
+ *
+ * Partitions are named {@code <table>_pYYYY_MM}. Only runs against Postgres.
+ */
+@Slf4j
+@Service
+public class LogPartitionService {
+
+    public static final List<String> TABLES = List.of("water_logs", "meal_logs", "activity_logs");
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public LogPartitionService(JdbcTemplate jdbc,
+                               PlatformTransactionManager txManager,
+                               @Value("${app.partitions.enabled:true}") boolean enabled,
+                               @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                               @Value("${app.partitions.retention-months:0}") int retentionMonths,
+                               @Value("${app.partitions.archive-dir:archive/logs}") Path archiveDir) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = archiveDir;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.partitions.maintenance-cron:0 30 3 * * *}")
+    public void scheduledMaintenance() {
+        maintain();
+    }
+
+    /**
+     * First day whose logs are still kept in the log tables; older months are archived
+     * (or about to be) once a retention is set. {@link LocalDate#EPOCH} without one.
+     */
+    public LocalDate retainedSince() {
+        return retentionMonths > 0
+            ? YearMonth.now().minusMonths(retentionMonths).atDay(1)
+            : LocalDate.EPOCH;
+    }
+
+    /**
+     * Create, split and archive partitions as described on the class; a run already in
+     * progress makes this a no-op
+     */
+    public void maintain() {
+        if (!enabled || !running.tryLock()) {
+            return;
+        }
+        try {
+            if (!isPostgres()) {
+                log.info("Log partitioning skipped: not a Postgres database");
+                return;
+            }
+            YearMonth thisMonth = YearMonth.now();
+            for (String table : TABLES) {
+                if (!isPartitioned(table)) {
+                    log.warn("Log partitioning skipped for {}: table is not partitioned", table);
+                    continue;
+                }
+                for (int i = 0; i <= monthsAhead; i++) {
+                    ensurePartition(table, thisMonth.plusMonths(i));
+                }
+                for (YearMonth month : monthsInDefault(table)) {
+                    ensurePartition(table, month);
+                }
+                if (retentionMonths > 0) {
+                    YearMonth cutoff = thisMonth.minusMonths(retentionMonths);
+                    for (YearMonth month : partitionMonths(table)) {
+                        if (month.isBefore(cutoff)) {
+                            jdbc.execute("alter table " + table + " detach partition " + partitionName(table, month));
+                            log.info("Detached {}", partitionName(table, month));
+                        }
+                    }
+                }
+                // Also picks up partitions detached by an earlier run that failed to archive them
+                for (String detached : detachedPartitions(table)) {
+                    archive(detached);
+                }
+            }
+        } catch (DataAccessException | IOException | UncheckedIOException e) {
+            log.error("Log partition maintenance failed", e);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    // Month's rows are moved out of the DEFAULT partition first; attaching fails if any remain there.
+    // LIKE copies no foreign keys: attaching adds (and validates) the parent's, see schema.sql
+    private void ensurePartition(String table, YearMonth month) {
+        String partition = partitionName(table, month);
+        if (jdbc.queryForObject("select to_regclass(?) is not null", Boolean.class, partition)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Integer moved = tx.execute(status -> {
+            jdbc.execute("create table " + partition + " (like " + table + " including defaults including constraints)");
+            int rows = jdbc.update("""
+                with moved as (delete from %s_default where created_at >= ? and created_at < ? returning *)
+                insert into %s select * from moved
+                """.formatted(table, partition), from.atStartOfDay(), to.atStartOfDay());
+            jdbc.execute("alter table " + table + " attach partition " + partition
+                + " for values from ('" + from + "') to ('" + to + "')");
+            return rows;
+        });
+        log.info("Created partition {} ({} rows moved from the default partition)", partition, moved);
+    }
+
+    private void archive(String partition) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        for (int n = 1; Files.exists(target); n++) {
+            target = archiveDir.resolve(partition + "-" + n + ".csv.gz");
+        }
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        long rows = jdbc.execute((ConnectionCallback<Long>) con -> {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                return con.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("copy " + partition + " to stdout with (format csv, header)", out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        jdbc.execute("drop table " + partition);
+        log.info("Archived {} ({} rows) to {}", partition, rows, target);
+    }
+
+    private boolean isPostgres() {
+        return jdbc.execute((ConnectionCallback<Boolean>) con ->
+            "PostgreSQL".equals(con.getMetaData().getDatabaseProductName()));
+    }
+
+    private boolean isPartitioned(String table) {
+        return jdbc.queryForObject(
+            "select exists (select 1 from pg_partitioned_table where partrelid = to_regclass(?))",
+            Boolean.class, table);
+    }
+
+    private List<YearMonth> monthsInDefault(String table) {
+        return jdbc.queryForList(
+            "select distinct cast(date_trunc('month', created_at) as date) from " + table + "_default",
+            LocalDate.class).stream().map(YearMonth::from).toList();
+    }
+
+    private List<YearMonth> partitionMonths(String table) {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbc.queryForList("""
+                select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = to_regclass(?)
+                """, String.class, table)) {
+            if (name.matches("\\Q" + table + "\\E_p\\d{4}_\\d{2}")) {
+                months.add(YearMonth.parse(name.substring(table.length() + 2), DateTimeFormatter.ofPattern("yyyy_MM")));
+            }
+        }
+        return months;
+    }
+
+    private List<String> detachedPartitions(String table) {
+        return jdbc.queryForList("""
+            select c.relname from pg_class c
+            where c.relkind = 'r'
+              and c.relnamespace = cast(current_schema() as regnamespace)
+              and c.relname ~ ('^' || ? || '_p[0-9]{4}_[0-9]{2}$')
+              and not exists (select 1 from pg_inherits i where i.inhrelid = c.oid)
+            order by c.relname
+            """, String.class, table);
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + MONTH_SUFFIX.format(month);
+    }
+}
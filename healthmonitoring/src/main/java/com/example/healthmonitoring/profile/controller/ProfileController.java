@@ -2,6 +2,7 @@ package com.example.healthmonitoring.profile.controller;
 
 import com.example.healthmonitoring.profile.entity.UserProfile;
 import com.example.healthmonitoring.profile.service.ProfileService;
+import com.example.healthmonitoring.security.AuthUser;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -36,6 +37,7 @@ public class ProfileController {
     public UserProfile saveProfile(@Valid @RequestBody ProfileRequest request, Authentication auth) {
         UserProfile profile = UserProfile.builder()
             .userId(getUserId(auth))
+            .userKey(AuthUser.of(auth).key())
             .gender(request.getGender())
             .dateOfBirth(request.getDateOfBirth())
             .heightCm(request.getHeightCm())
@@ -1,18 +1,22 @@
 package com.example.healthmonitoring.profile.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserDataVersionListener.class)
 @Table(name = "user_profiles")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class UserProfile {
+public class UserProfile implements UserOwned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,6 +24,10 @@ public class UserProfile {
     @Column(unique = true, nullable = false)
     private String userId; // email from JWT
 
+    @JsonIgnore
+    @Column(name = "user_key")
+    private Long userKey; // users.user_key
+
     @Column(nullable = false)
     private String gender; // MALE, FEMALE, OTHER
 
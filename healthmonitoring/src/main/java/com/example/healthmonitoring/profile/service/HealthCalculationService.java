@@ -99,7 +99,24 @@ public class HealthCalculationService {
      * Calculate age from date of birth
      */
     public int calculateAge(LocalDate dateOfBirth) {
-        return Period.between(dateOfBirth, LocalDate.now()).getYears();
+        return calculateAge(dateOfBirth, LocalDate.now());
+    }
+
+    /**
+     * Calculate age on a given day
+     */
+    public int calculateAge(LocalDate dateOfBirth, LocalDate day) {
+        return Period.between(dateOfBirth, day).getYears();
+    }
+
+    /**
+     * First day after {@code day} on which the age goes up
+     */
+    public LocalDate nextBirthday(LocalDate dateOfBirth, LocalDate day) {
+        int age = calculateAge(dateOfBirth, day);
+        LocalDate next = dateOfBirth.plusYears(age + 1);
+        // Feb 29 birthdays: plusYears lands on Feb 28, but the age only changes on Mar 1
+        return calculateAge(dateOfBirth, next) > age ? next : next.plusDays(1);
     }
 
     /**
@@ -0,0 +1,72 @@
+package com.example.healthmonitoring.profile.service;
+
+import com.example.healthmonitoring.common.BoundedCache;
+import com.example.healthmonitoring.common.WriteStamps;
+import com.example.healthmonitoring.profile.service.ProfileService.HealthInsights;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Per-user {@link HealthInsights}, computed once per profile version.
+ * Entries are dropped when the profile (or weight) is saved and stop matching
+ * on the user's next birthday, when the age-dependent metrics move.
+ */
+@Component
+public class HealthInsightsCache {
+
+    private final BoundedCache<String, Snapshot> cache;
+
+    // Bumped on every invalidation; a load that raced a save is not cached
+    private final WriteStamps writeStamps = new WriteStamps(1024);
+
+    public HealthInsightsCache(@Value("${app.insights-cache.max-size:10000}") int maxSize,
+                               @Value("${app.insights-cache.ttl:1h}") Duration ttl) {
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Cached insights for the user, or null on a miss or once the birthday has passed
+     */
+    public Snapshot get(String userId, LocalDate today) {
+        return cache.getIfPresent(userId, s -> today.isBefore(s.nextBirthday()));
+    }
+
+    /**
+     * Stamp to pass back to {@link #put} after computing a snapshot
+     */
+    public long stamp(String userId) {
+        return writeStamps.stamp(userId);
+    }
+
+    /**
+     * Cache a computed snapshot unless the user's profile changed since {@code stamp}
+     */
+    public void put(String userId, long stamp, Snapshot snapshot) {
+        if (writeStamps.unchanged(userId, stamp)) {
+            cache.put(userId, snapshot);
+        }
+    }
+
+    public void invalidate(String userId) {
+        writeStamps.bump(userId);
+        cache.invalidate(userId);
+    }
+
+    public void clear() {
+        writeStamps.bumpAll();
+        cache.clear();
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Insights for the current profile, valid until {@code nextBirthday}
+     */
+    public record Snapshot(HealthInsights insights, LocalDate nextBirthday) {
+    }
+}
@@ -1,55 +1,49 @@
 package com.example.healthmonitoring.profile.service;
 
+import com.example.healthmonitoring.common.AfterCommit;
 import com.example.healthmonitoring.profile.entity.UserProfile;
 import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class ProfileService {
 
     private final UserProfileRepository profileRepo;
     private final HealthCalculationService healthCalc;
+    private final TodayTotalsCache todayCache;
+    private final HealthInsightsCache insightsCache;
 
     /**
      * Create or update user profile with automatic calculations
      */
     @Transactional
     public UserProfile saveProfile(UserProfile profile) {
-        // Calculate age
-        int age = healthCalc.calculateAge(profile.getDateOfBirth());
-
-        // Calculate BMI
-        double bmi = healthCalc.calculateBMI(profile.getCurrentWeightKg(), profile.getHeightCm());
-        profile.setBmi(bmi);
-
-        // Calculate BMR
-        double bmr = healthCalc.calculateBMR(
-            profile.getCurrentWeightKg(),
-            profile.getHeightCm(),
-            age,
-            profile.getGender()
-        );
-        profile.setBmr(bmr);
-
-        // Calculate TDEE
-        double tdee = healthCalc.calculateTDEE(bmr, profile.getActivityLevel());
-        profile.setTdee(tdee);
-
-        // Calculate daily calorie goal
-        int calorieGoal = healthCalc.calculateDailyCalorieGoal(tdee, profile.getGoal());
-        profile.setDailyCalorieGoal(calorieGoal);
-
-        // Calculate daily water goal
-        int waterGoal = healthCalc.calculateDailyWaterGoal(
-            profile.getCurrentWeightKg(),
-            profile.getActivityLevel()
-        );
-        profile.setDailyWaterGoalMl(waterGoal);
+        MetricInputs before = null;
+        if (profile.getId() != null) {
+            UserProfile previous = profileRepo.findById(profile.getId()).orElse(null);
+            if (previous != null) {
+                // Captured before the merge below overwrites the managed instance
+                before = MetricInputs.asSaved(previous, healthCalc);
+                profile.setBmi(previous.getBmi());
+                profile.setBmr(previous.getBmr());
+                profile.setTdee(previous.getTdee());
+                profile.setDailyCalorieGoal(previous.getDailyCalorieGoal());
+                profile.setDailyWaterGoalMl(previous.getDailyWaterGoalMl());
+            }
+        }
+        recalculate(profile, before, LocalDate.now());
 
-        return profileRepo.save(profile);
+        UserProfile saved = profileRepo.save(profile);
+        profileChanged(saved.getUserId());
+        return saved;
     }
 
     /**
@@ -68,21 +62,61 @@ public class ProfileService {
     }
 
     /**
-     * Update weight and recalculate metrics
+     * Update weight and recalculate the metrics that depend on it
      */
     @Transactional
     public UserProfile updateWeight(String userId, double newWeightKg) {
-        UserProfile profile = getProfile(userId);
+        return updateWeight(getProfile(userId), newWeightKg);
+    }
+
+    /**
+     * Same as {@link #updateWeight(String, double)} for a profile the caller already
+     * loaded in its transaction; an unchanged weight writes nothing
+     */
+    @Transactional
+    public UserProfile updateWeight(UserProfile profile, double newWeightKg) {
+        if (Double.compare(profile.getCurrentWeightKg(), newWeightKg) == 0) {
+            return profile;
+        }
+        MetricInputs before = MetricInputs.asSaved(profile, healthCalc);
         profile.setCurrentWeightKg(newWeightKg);
-        return saveProfile(profile);
+        recalculate(profile, before, LocalDate.now());
+
+        UserProfile saved = profileRepo.save(profile);
+        profileChanged(saved.getUserId());
+        return saved;
     }
 
     /**
-     * Get health insights
+     * Get health insights; served from the insights cache until the profile changes
      */
     public HealthInsights getHealthInsights(String userId) {
-        UserProfile profile = getProfile(userId);
-        
+        return getHealthInsights(userId, () -> getProfile(userId));
+    }
+
+    /**
+     * Same as {@link #getHealthInsights(String)} for a caller that may need the profile
+     * itself: {@code profile} is only called on a cache miss. Null if it returns null.
+     */
+    public HealthInsights getHealthInsights(String userId, Supplier<UserProfile> profile) {
+        LocalDate today = LocalDate.now();
+        HealthInsightsCache.Snapshot cached = insightsCache.get(userId, today);
+        if (cached != null) {
+            return cached.insights();
+        }
+
+        long stamp = insightsCache.stamp(userId);
+        UserProfile loaded = profile.get();
+        if (loaded == null) {
+            return null;
+        }
+        HealthInsights insights = insights(atCurrentAge(loaded, today));
+        insightsCache.put(userId, stamp, new HealthInsightsCache.Snapshot(
+            insights, healthCalc.nextBirthday(loaded.getDateOfBirth(), today)));
+        return insights;
+    }
+
+    private HealthInsights insights(UserProfile profile) {
         String bmiCategory = healthCalc.getBMICategory(profile.getBmi());
         double[] idealWeightRange = healthCalc.calculateIdealWeightRange(profile.getHeightCm());
         
@@ -107,6 +141,110 @@ public class ProfileService {
             .build();
     }
 
+    /**
+     * Recompute only the metrics whose inputs differ from {@code before} (all of them
+     * if null); the profile must already carry the previously stored values
+     */
+    private void recalculate(UserProfile profile, MetricInputs before, LocalDate today) {
+        MetricInputs now = new MetricInputs(
+            profile.getCurrentWeightKg(),
+            profile.getHeightCm(),
+            healthCalc.calculateAge(profile.getDateOfBirth(), today),
+            profile.getGender(),
+            profile.getActivityLevel(),
+            profile.getGoal()
+        );
+        boolean all = before == null;
+        boolean weight = all || Double.compare(before.weightKg(), now.weightKg()) != 0;
+        boolean height = all || Double.compare(before.heightCm(), now.heightCm()) != 0;
+        boolean activity = all || !Objects.equals(before.activityLevel(), now.activityLevel());
+
+        // BMI
+        if (weight || height || profile.getBmi() == null) {
+            profile.setBmi(healthCalc.calculateBMI(now.weightKg(), now.heightCm()));
+        }
+
+        // BMR -> TDEE -> daily calorie goal
+        boolean bmr = weight || height || before.age() != now.age()
+            || !Objects.equals(before.gender(), now.gender()) || profile.getBmr() == null;
+        if (bmr) {
+            profile.setBmr(healthCalc.calculateBMR(now.weightKg(), now.heightCm(), now.age(), now.gender()));
+        }
+        boolean tdee = bmr || activity || profile.getTdee() == null;
+        if (tdee) {
+            profile.setTdee(healthCalc.calculateTDEE(profile.getBmr(), now.activityLevel()));
+        }
+        if (tdee || !Objects.equals(before.goal(), now.goal()) || profile.getDailyCalorieGoal() == null) {
+            profile.setDailyCalorieGoal(healthCalc.calculateDailyCalorieGoal(profile.getTdee(), now.goal()));
+        }
+
+        // Daily water goal
+        if (weight || activity || profile.getDailyWaterGoalMl() == null) {
+            profile.setDailyWaterGoalMl(healthCalc.calculateDailyWaterGoal(now.weightKg(), now.activityLevel()));
+        }
+    }
+
+    // Stored BMR was computed at the age the user had when the profile was last saved
+    private boolean ageRolledOver(UserProfile profile, LocalDate today) {
+        return profile.getUpdatedAt() != null
+            && healthCalc.calculateAge(profile.getDateOfBirth(), profile.getUpdatedAt().toLocalDate())
+                != healthCalc.calculateAge(profile.getDateOfBirth(), today);
+    }
+
+    /**
+     * The profile itself, or past a birthday a detached copy with the age-dependent
+     * metrics recomputed; reads never write, the next save persists the new values
+     */
+    private UserProfile atCurrentAge(UserProfile profile, LocalDate today) {
+        if (!ageRolledOver(profile, today)) {
+            return profile;
+        }
+        UserProfile current = UserProfile.builder()
+            .userId(profile.getUserId())
+            .gender(profile.getGender())
+            .dateOfBirth(profile.getDateOfBirth())
+            .heightCm(profile.getHeightCm())
+            .currentWeightKg(profile.getCurrentWeightKg())
+            .targetWeightKg(profile.getTargetWeightKg())
+            .activityLevel(profile.getActivityLevel())
+            .goal(profile.getGoal())
+            .bmi(profile.getBmi())
+            .bmr(profile.getBmr())
+            .tdee(profile.getTdee())
+            .dailyCalorieGoal(profile.getDailyCalorieGoal())
+            .dailyWaterGoalMl(profile.getDailyWaterGoalMl())
+            .updatedAt(profile.getUpdatedAt())
+            .build();
+        recalculate(current, MetricInputs.asSaved(profile, healthCalc), today);
+        return current;
+    }
+
+    private void profileChanged(String userId) {
+        AfterCommit.run(() -> {
+            todayCache.invalidate(userId);
+            insightsCache.invalidate(userId);
+        });
+    }
+
+    /**
+     * What the stored metrics were computed from
+     */
+    private record MetricInputs(double weightKg, double heightCm, int age,
+                                String gender, String activityLevel, String goal) {
+
+        static MetricInputs asSaved(UserProfile profile, HealthCalculationService healthCalc) {
+            LocalDate savedOn = profile.getUpdatedAt() != null ? profile.getUpdatedAt().toLocalDate() : LocalDate.now();
+            return new MetricInputs(
+                profile.getCurrentWeightKg(),
+                profile.getHeightCm(),
+                healthCalc.calculateAge(profile.getDateOfBirth(), savedOn),
+                profile.getGender(),
+                profile.getActivityLevel(),
+                profile.getGoal()
+            );
+        }
+    }
+
     @lombok.Data
     @lombok.Builder
     public static class HealthInsights {
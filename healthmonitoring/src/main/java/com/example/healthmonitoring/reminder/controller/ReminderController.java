@@ -6,6 +6,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import com.example.healthmonitoring.reminder.entity.Reminder;
 import com.example.healthmonitoring.reminder.repo.ReminderRepository;
+import com.example.healthmonitoring.reminder.service.ReminderDispatcher;
+import com.example.healthmonitoring.security.AuthUser;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
@@ -16,25 +18,41 @@ import lombok.*;
 public class ReminderController {
 
     private final ReminderRepository repo;
+    private final ReminderDispatcher dispatcher;
 
     private String getUserId(Authentication auth) {
         return auth.getName();
     }
 
+    private long getUserKey(Authentication auth) {
+        return AuthUser.of(auth).key();
+    }
+
     @GetMapping
     public List<Reminder> getAll(Authentication auth) {
-        return repo.findByUserIdOrderByTimeAsc(getUserId(auth));
+        return repo.findByUserKeyOrderByMinuteOfDayAsc(getUserKey(auth));
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Reminder create(@Valid @RequestBody CreateReq req, Authentication auth) {
+        int minuteOfDay = Reminder.parseTime(req.getTime());
+        if (minuteOfDay < 0) {
+            throw new IllegalArgumentException("Time must be HH:mm");
+        }
+        int daysMask = Reminder.parseDays(req.getDaysOfWeek());
+        if (daysMask == 0) {
+            throw new IllegalArgumentException("Days of week must be numbers 1 (Mon) to 7 (Sun)");
+        }
         Reminder r = new Reminder();
         r.setUserId(getUserId(auth));
-        r.setTime(req.getTime());
-        r.setDaysOfWeek(req.getDaysOfWeek());
+        r.setUserKey(getUserKey(auth));
+        r.setMinuteOfDay(minuteOfDay);
+        r.setDaysMask(daysMask);
         r.setEnabled(true);
-        return repo.save(r);
+        Reminder saved = repo.save(r);
+        dispatcher.saved(saved);
+        return saved;
     }
 
     @PatchMapping("/{id}/toggle")
@@ -44,7 +62,9 @@ public class ReminderController {
             throw new RuntimeException("Forbidden");
         }
         r.setEnabled(!r.isEnabled());
-        return repo.save(r);
+        Reminder saved = repo.save(r);
+        dispatcher.saved(saved);
+        return saved;
     }
 
     @DeleteMapping("/{id}")
@@ -55,6 +75,7 @@ public class ReminderController {
             throw new RuntimeException("Forbidden");
         }
         repo.deleteById(id);
+        dispatcher.deleted(r);
     }
 
     @Getter
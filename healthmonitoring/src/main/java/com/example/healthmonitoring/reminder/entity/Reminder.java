@@ -1,29 +1,41 @@
 package com.example.healthmonitoring.reminder.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(UserDataVersionListener.class)
 @Table(name = "reminders")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Reminder {
+public class Reminder implements UserOwned {
+    public static final int EVERY_DAY = 0b111_1111;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminders_seq")
+    @SequenceGenerator(name = "reminders_seq", sequenceName = "reminders_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String userId;
 
-    @Column(nullable = false)
-    private String time; // "07:20"
+    @JsonIgnore
+    @Column(name = "user_key")
+    private Long userKey; // users.user_key
 
-    @Column(nullable = false)
-    private String daysOfWeek; // "1,2,3,4,5,6,7" (1=Mon, 7=Sun)
+    @Column(nullable = false, columnDefinition = "smallint")
+    private int minuteOfDay; // 07:20 -> 440
+
+    @Column(nullable = false, columnDefinition = "smallint")
+    private int daysMask; // bit 0 = Monday ... bit 6 = Sunday
 
     @Column(nullable = false)
     private boolean enabled;
@@ -31,10 +43,81 @@ public class Reminder {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Local epoch minute this reminder last fired at; set only by ReminderRepository.claimDue
+    @JsonIgnore
+    @Column(name = "last_fired_minute", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long lastFiredMinute;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * "HH:mm", as the app sends it
+     */
+    @JsonProperty("time")
+    public String getTime() {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * "1,2,3" (1 = Monday ... 7 = Sunday), as the app sends it
+     */
+    @JsonProperty("daysOfWeek")
+    public String getDaysOfWeek() {
+        StringBuilder days = new StringBuilder();
+        for (int day = 1; day <= 7; day++) {
+            if ((daysMask & dayBit(day)) != 0) {
+                if (!days.isEmpty()) days.append(',');
+                days.append(day);
+            }
+        }
+        return days.toString();
+    }
+
+    /**
+     * Mask bit for a day of the week (1 = Monday ... 7 = Sunday)
+     */
+    public static int dayBit(int dayOfWeek) {
+        return 1 << (dayOfWeek - 1);
+    }
+
+    /**
+     * "HH:mm" to minute of day, or -1 if it isn't a valid time
+     */
+    public static int parseTime(String time) {
+        if (time == null) return -1;
+        String[] parts = time.trim().split(":");
+        if (parts.length != 2) return -1;
+        try {
+            int hour = Integer.parseInt(parts[0]);
+            int minute = Integer.parseInt(parts[1]);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return -1;
+            return hour * 60 + minute;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * "1,3,5" to a day mask; blank means every day, and 0 is returned if any entry is invalid
+     */
+    public static int parseDays(String days) {
+        if (days == null || days.isBlank()) return EVERY_DAY;
+        int mask = 0;
+        for (String part : days.split(",")) {
+            try {
+                int day = Integer.parseInt(part.trim());
+                if (day < 1 || day > 7) return 0;
+                mask |= dayBit(day);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return mask;
+    }
+}
@@ -1,9 +1,50 @@
 package com.example.healthmonitoring.reminder.repo;
 
 import java.util.List;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import com.example.healthmonitoring.reminder.entity.Reminder;
 
 public interface ReminderRepository extends JpaRepository<Reminder, Long> {
-    List<Reminder> findByUserIdOrderByTimeAsc(String userId);
-}
\ No newline at end of file
+    List<Reminder> findByUserKeyOrderByMinuteOfDayAsc(long userKey);
+
+    /**
+     * Number of enabled reminders per distinct schedule, for loading the dispatch wheel;
+     * must be consumed inside a transaction
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           select new com.example.healthmonitoring.reminder.repo.ReminderRepository$Schedule(r.minuteOfDay, r.daysMask, count(r))
+           from Reminder r
+           where r.enabled = true
+           group by r.minuteOfDay, r.daysMask
+           """)
+    Stream<Schedule> streamEnabledSchedules();
+
+    /**
+     * Claim the enabled reminders due at minuteOfDay on the day whose mask bit is dayBit
+     * for the local epoch minute {@code minute}, and return them. A reminder already
+     * claimed for that minute, by this or another instance, is skipped, so each fires
+     * once. Index scan on idx_reminders_enabled_minute; must be consumed inside a
+     * read-write transaction, which holds the claimed rows until it ends.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+           update reminders set last_fired_minute = ?3
+           where enabled and minute_of_day = ?1 and days_mask & ?2 <> 0 and last_fired_minute < ?3
+           returning *
+           """, nativeQuery = true)
+    Stream<Reminder> claimDue(int minuteOfDay, int dayBit, long minute);
+
+    record Schedule(int minuteOfDay, int daysMask, long reminders) {}
+}
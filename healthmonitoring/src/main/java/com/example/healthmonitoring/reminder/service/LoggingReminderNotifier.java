@@ -0,0 +1,20 @@
+package com.example.healthmonitoring.reminder.service;
+
+import com.example.healthmonitoring.reminder.entity.Reminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stand-in notifier until a push channel exists: logs each due reminder.
+ */
+@Slf4j
+@Component
+public class LoggingReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void send(Reminder reminder, LocalDateTime dueAt) {
+        log.info("Reminder {} due for {} at {}", reminder.getId(), reminder.getUserId(), dueAt);
+    }
+}
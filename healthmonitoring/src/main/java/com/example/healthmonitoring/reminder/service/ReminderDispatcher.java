@@ -0,0 +1,149 @@
+package com.example.healthmonitoring.reminder.service;
+
+import com.example.healthmonitoring.common.AfterCommit;
+import com.example.healthmonitoring.reminder.entity.Reminder;
+import com.example.healthmonitoring.reminder.repo.ReminderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+/**
+ * Fires enabled reminders at their "HH:mm" on their days of the week.
+ *
+ * All enabled reminders are counted into a {@link ReminderWheel} once at startup
+ * and kept current by the controller's create/toggle/delete; each tick only
+ * checks the slots for the minutes that passed and, for a non-empty one, reads
+ * the due rows through the (enabled, minute_of_day) index. A stale wheel count
+ * therefore costs one query, never a wrong notification.
+ *
+ * Any number of instances may run the dispatcher: reading the due rows claims
+ * them for the minute (reminders.last_fired_minute), so each reminder fires on
+ * whichever instance gets to it first. Each instance's wheel only counts what
+ * it loaded or changed itself, so a reminder created elsewhere since startup
+ * fires from an instance that did count it. The instances must agree on
+ * app.reminders.zone, since the claimed minute is local wall-clock time.
+ */
+@Slf4j
+@Component
+public class ReminderDispatcher {
+
+    private final ReminderRepository repo;
+    private final ReminderNotifier notifier;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final long maxCatchUpMinutes;
+    private final ReminderWheel wheel = new ReminderWheel();
+
+    // Local wall-clock minute (epoch minutes of the local date-time) fired last; 0 until loaded
+    private volatile long lastMinute;
+
+    public ReminderDispatcher(ReminderRepository repo,
+                              ReminderNotifier notifier,
+                              PlatformTransactionManager txManager,
+                              @Value("${app.reminders.dispatch.enabled:true}") boolean enabled,
+                              @Value("${app.reminders.zone:}") String zone,
+                              @Value("${app.reminders.max-catch-up:5m}") Duration maxCatchUp) {
+        this.repo = repo;
+        this.notifier = notifier;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.maxCatchUpMinutes = Math.max(1, maxCatchUp.toMinutes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        long started = System.nanoTime();
+        wheel.clear();
+        // Start from the current minute so a restart doesn't re-fire it
+        lastMinute = currentMinute();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<ReminderRepository.Schedule> rows = repo.streamEnabledSchedules()) {
+                rows.forEach(r -> wheel.add(r.minuteOfDay(), r.daysMask(), Math.toIntExact(r.reminders())));
+            }
+        });
+        log.info("Reminder wheel loaded: {} weekly occurrences in {} ms",
+            wheel.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Fire every minute that passed since the last tick. Minutes missed while the
+     * process was stalled are caught up, up to app.reminders.max-catch-up.
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.dispatch.tick:5s}")
+    public void tick() {
+        if (!enabled || lastMinute == 0) return;
+        long now = currentMinute();
+        // Clocks going back (DST) leave now <= lastMinute: nothing fires until it passes again
+        for (long m = Math.max(lastMinute + 1, now - maxCatchUpMinutes + 1); m <= now; m++) {
+            fire(m, LocalDateTime.ofEpochSecond(m * 60, 0, ZoneOffset.UTC));
+        }
+        if (now > lastMinute) {
+            lastMinute = now;
+        }
+    }
+
+    /**
+     * Count or drop a reminder after it was created or toggled, depending on whether it is enabled
+     */
+    public void saved(Reminder reminder) {
+        AfterCommit.run(() -> {
+            if (reminder.isEnabled()) {
+                wheel.add(reminder.getMinuteOfDay(), reminder.getDaysMask());
+            } else {
+                wheel.remove(reminder.getMinuteOfDay(), reminder.getDaysMask());
+            }
+        });
+    }
+
+    /**
+     * Drop a reminder after its row was deleted; a disabled one was never counted
+     */
+    public void deleted(Reminder reminder) {
+        if (!reminder.isEnabled()) return;
+        AfterCommit.run(() -> wheel.remove(reminder.getMinuteOfDay(), reminder.getDaysMask()));
+    }
+
+    public long scheduledCount() {
+        return wheel.size();
+    }
+
+    private void fire(long minute, LocalDateTime dueAt) {
+        // The wheel says whether anything is due; the rows come from the (enabled, minute_of_day) index
+        if (!wheel.hasDue(ReminderWheel.minuteOfWeek(dueAt))) return;
+        int minuteOfDay = dueAt.getHour() * 60 + dueAt.getMinute();
+        int dayBit = Reminder.dayBit(dueAt.getDayOfWeek().getValue());
+        // Rows claimed by another instance for this minute are not returned
+        tx.executeWithoutResult(status -> {
+            try (Stream<Reminder> due = repo.claimDue(minuteOfDay, dayBit, minute)) {
+                due.forEach(reminder -> {
+                    try {
+                        notifier.send(reminder, dueAt);
+                    } catch (RuntimeException e) {
+                        log.warn("Reminder {} notification failed", reminder.getId(), e);
+                    }
+                });
+            }
+        });
+    }
+
+    private long currentMinute() {
+        return LocalDateTime.now(zone).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
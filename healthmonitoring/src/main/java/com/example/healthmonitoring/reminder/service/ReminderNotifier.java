@@ -0,0 +1,14 @@
+package com.example.healthmonitoring.reminder.service;
+
+import com.example.healthmonitoring.reminder.entity.Reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delivers a due reminder to its user (push, email, ...).
+ * Called from the dispatcher thread, so slow channels should hand off.
+ */
+public interface ReminderNotifier {
+
+    void send(Reminder reminder, LocalDateTime dueAt);
+}
@@ -0,0 +1,72 @@
+package com.example.healthmonitoring.reminder.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count of enabled reminders per minute of the week (Mon 00:00 = 0 ... Sun 23:59 = 10079).
+ *
+ * Reminders repeat weekly, so one revolution of the wheel is a week and a tick only
+ * reads the slot for the current minute. The wheel only tells the dispatcher whether
+ * a minute is worth a query; the due rows themselves come from the database. That
+ * keeps it at a fixed 40 KB however many reminders there are. Counts are a hint: one
+ * that is too high costs an empty query, so removals never take a slot below zero.
+ */
+public class ReminderWheel {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(MINUTES_PER_WEEK);
+
+    /**
+     * Count a reminder at minuteOfDay on each day in daysMask (bit 0 = Monday)
+     */
+    public void add(int minuteOfDay, int daysMask) {
+        add(minuteOfDay, daysMask, 1);
+    }
+
+    /**
+     * Count {@code reminders} reminders sharing one schedule, for the bulk load
+     */
+    public void add(int minuteOfDay, int daysMask, int reminders) {
+        for (int day = 0; day < 7; day++) {
+            if ((daysMask & (1 << day)) != 0) {
+                counts.addAndGet(day * MINUTES_PER_DAY + minuteOfDay, reminders);
+            }
+        }
+    }
+
+    public void remove(int minuteOfDay, int daysMask) {
+        for (int day = 0; day < 7; day++) {
+            if ((daysMask & (1 << day)) != 0) {
+                counts.getAndUpdate(day * MINUTES_PER_DAY + minuteOfDay, count -> Math.max(0, count - 1));
+            }
+        }
+    }
+
+    public boolean hasDue(int minuteOfWeek) {
+        return counts.get(minuteOfWeek) > 0;
+    }
+
+    /**
+     * Number of weekly occurrences counted across all slots
+     */
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            size += counts.get(i);
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+}
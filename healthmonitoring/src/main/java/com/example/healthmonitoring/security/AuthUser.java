@@ -0,0 +1,30 @@
+package com.example.healthmonitoring.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal set by {@link JwtAuthFilter}, built from the token's claims: the user's
+ * numeric users.user_key (what the per-user indexes on the log tables are built on),
+ * users.id ("uid"), email (still what {@code auth.getName()} returns) and roles.
+ * {@code id} is null and {@code roles} empty for tokens issued without those claims.
+ */
+public record AuthUser(long key, String id, String email, List<String> roles) implements Principal {
+
+    public static AuthUser of(Authentication auth) {
+        return (AuthUser) auth.getPrincipal();
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream().<GrantedAuthority>map(r -> new SimpleGrantedAuthority("ROLE_" + r)).toList();
+    }
+}
@@ -32,25 +32,36 @@
 // }
 package com.example.healthmonitoring.security;
 
-import com.example.healthmonitoring.auth.repo.UserRepository;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
+/**
+ * Authenticates "Bearer" requests. In stateless mode (the default) the {@link AuthUser}
+ * principal comes straight from the verified claims and the only check is the in-memory
+ * token version, so the request does no DB work. Tokens without a "uk" claim, and every
+ * token with stateless mode off, also need the user to exist (cached, see
+ * {@link UserExistenceCache}).
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwt;
-    private final UserRepository users;
+    private final UserExistenceCache users;
+    private final TokenVersions tokenVersions;
+    private final boolean stateless;
 
-    public JwtAuthFilter(JwtService jwt, UserRepository users) {
+    public JwtAuthFilter(JwtService jwt, UserExistenceCache users, TokenVersions tokenVersions,
+                         @Value("${app.security.stateless:true}") boolean stateless) {
         this.jwt = jwt;
         this.users = users;
+        this.tokenVersions = tokenVersions;
+        this.stateless = stateless;
     }
 
     @Override
@@ -59,15 +70,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         var h = req.getHeader("Authorization");
         if (h != null && h.startsWith("Bearer ")) {
             try {
-                var email = jwt.subject(h.substring(7));
-                users.findByEmail(email).ifPresent(u -> {
-                    // FIX: Set email as principal so auth.getName() returns email
-                    var token = new UsernamePasswordAuthenticationToken(email, null, List.of());
+                var verified = jwt.verify(h.substring(7));
+                var user = principal(verified);
+                if (user != null && !tokenVersions.isRevoked(user.key(), verified.tokenVersion())) {
+                    var token = new UsernamePasswordAuthenticationToken(user, null, user.authorities());
                     SecurityContextHolder.getContext().setAuthentication(token);
-                });
+                }
             } catch (Exception ignored) {
             }
         }
         chain.doFilter(req, res);
     }
+
+    private AuthUser principal(JwtService.VerifiedToken verified) {
+        var email = verified.subject();
+        Long key = verified.userKey();
+        if (!stateless || key == null) {
+            if (!users.exists(email)) {
+                return null;
+            }
+            // Tokens issued before the "uk" claim existed resolve it through the cache
+            key = key != null ? key : users.userKey(email);
+        }
+        return new AuthUser(key, verified.userId(), email, verified.roles());
+    }
 }
@@ -1,16 +1,26 @@
 // security/JwtService.java
 package com.example.healthmonitoring.security;
+import com.example.healthmonitoring.common.BoundedCache;
 import io.jsonwebtoken.*; import io.jsonwebtoken.io.Decoders; import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value; import org.springframework.stereotype.Service;
-import java.security.Key; import java.util.*;
+import java.nio.charset.StandardCharsets; import java.security.Key; import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException; import java.time.Duration; import java.util.*;
 
 @Service
 public class JwtService {
   private final Key key; private final int expHours;
+  // JwtParser is immutable and thread-safe once built
+  private final JwtParser parser;
+  // SHA-256(token) -> verified subject/expiry, so repeat requests skip signature + JSON parsing
+  private final BoundedCache<String, VerifiedToken> verified;
+
   public JwtService(@Value("${app.jwt.secret}") String secret,
-                    @Value("${app.jwt.expirationHours}") int expHours){
+                    @Value("${app.jwt.expirationHours}") int expHours,
+                    @Value("${app.jwt.cache-size:10000}") int cacheSize){
     this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)); // decode Base64
     this.expHours = expHours;
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.verified = new BoundedCache<>(cacheSize, Duration.ofHours(expHours));
   }
   public String generate(String sub, Map<String,Object> claims){
     var now=new Date(); var exp=new Date(now.getTime()+expHours*3600_000L);
@@ -18,6 +28,33 @@ public class JwtService {
       .signWith(key, SignatureAlgorithm.HS256).compact();
   }
   public String subject(String token){
-    return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    return verify(token).subject();
+  }
+  /**
+   * Subject and user claims ("uk" user key, "uid", "roles", "tv" token version) of a valid token.
+   * Tokens issued before a claim existed have a null userKey/userId, no roles and version 0.
+   */
+  public VerifiedToken verify(String token){
+    var digest = digest(token);
+    var cached = verified.getIfPresent(digest, v -> v.expiresAt() > System.currentTimeMillis());
+    if (cached != null) return cached;
+    var claims = parser.parseClaimsJws(token).getBody();
+    var userKey = claims.get("uk") instanceof Number n ? n.longValue() : null;
+    var roles = claims.get("roles") instanceof List<?> l ? l.stream().map(String::valueOf).toList() : List.<String>of();
+    var tokenVersion = claims.get("tv") instanceof Number n ? n.intValue() : 0;
+    var result = new VerifiedToken(claims.getSubject(), userKey, claims.get("uid", String.class), roles, tokenVersion,
+      claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    if (claims.getExpiration() != null) verified.put(digest, result);
+    return result;
+  }
+  public BoundedCache.Stats cacheStats(){ return verified.stats(); }
+
+  private static String digest(String token){
+    try {
+      var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
   }
+  public record VerifiedToken(String subject, Long userKey, String userId, List<String> roles,
+                              int tokenVersion, long expiresAt) {}
 }
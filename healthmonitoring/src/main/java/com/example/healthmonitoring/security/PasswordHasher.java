@@ -0,0 +1,167 @@
+package com.example.healthmonitoring.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing (BCrypt, CPU-bound by design) on a small fixed pool of platform
+ * threads instead of the request thread, so a login burst can use at most that many
+ * cores and the rest of the API keeps running. Callers wait on their virtual thread.
+ *
+ * The queue in front of the pool is bounded: when it is full, or a hash isn't done
+ * within the timeout, {@link BusyException} is thrown and the client gets a 503 with
+ * Retry-After.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder encoder,
+                          @Value("${app.security.hashing.threads:0}") int threads,
+                          @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.security.hashing.timeout:5s}") Duration timeout,
+                          @Value("${app.security.hashing.retry-after:2s}") Duration retryAfter) {
+        this.encoder = encoder;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        // 0 = half the cores, leaving the other half to everything else
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "password-hasher-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(CharSequence raw) {
+        return await(() -> encoder.encode(raw));
+    }
+
+    public boolean matches(CharSequence raw, String encoded) {
+        return await(() -> encoder.matches(raw, encoded));
+    }
+
+    /**
+     * Whether the stored hash is weaker than the configured cost and should be redone
+     */
+    public boolean needsUpgrade(String encoded) {
+        return encoder.upgradeEncoding(encoded);
+    }
+
+    /**
+     * Hash in the background and hand the result to {@code then} on the hashing thread;
+     * dropped if the pool is saturated (for work that can wait for another chance)
+     */
+    public void encodeLater(CharSequence raw, Consumer<String> then) {
+        try {
+            pool.execute(() -> {
+                try {
+                    then.accept(timed(() -> encoder.encode(raw)));
+                } catch (RuntimeException e) {
+                    log.warn("Background password hash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    public Stats stats() {
+        long count = hashes.sum();
+        return new Stats(pool.getQueue().size(), pool.getActiveCount(), pool.getMaximumPoolSize(), count,
+            count > 0 ? hashNanos.sum() / count / 1_000_000.0 : 0, maxHashNanos.get() / 1_000_000.0, rejected.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.hashing.stats-log-interval:5m}")
+    public void logStats() {
+        Stats stats = stats();
+        log.debug("Password hashing: queued={} active={}/{} hashes={} avgMs={} maxMs={} rejected={}",
+            stats.queued(), stats.active(), stats.threads(), stats.hashes(),
+            String.format("%.1f", stats.avgMillis()), String.format("%.1f", stats.maxMillis()), stats.rejected());
+    }
+
+    private <T> T await(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException(retryAfter);
+        }
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new BusyException(retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusyException(retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            hashes.increment();
+            hashNanos.add(nanos);
+            maxHashNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Pool and hash timings since startup
+     */
+    public record Stats(int queued, int active, int threads, long hashes, double avgMillis, double maxMillis,
+                        long rejected) {
+    }
+
+    /**
+     * Hashing pool saturated; the client should retry after {@link #getRetryAfter()}
+     */
+    public static class BusyException extends RuntimeException {
+        private final Duration retryAfter;
+
+        public BusyException(Duration retryAfter) {
+            super("Too many sign-in attempts, please retry");
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
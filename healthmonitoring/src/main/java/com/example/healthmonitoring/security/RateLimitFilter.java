@@ -0,0 +1,150 @@
+package com.example.healthmonitoring.security;
+
+import com.example.healthmonitoring.common.ErrorResponse;
+import com.example.healthmonitoring.common.TokenBuckets;
+import com.example.healthmonitoring.common.TokenBuckets.Limit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process rate limiting, run right after {@link JwtAuthFilter}.
+ *
+ * A request takes a token from the bucket of the first endpoint group its path
+ * matches: per user when authenticated, per IP otherwise (auth endpoints are always
+ * per IP). Requests not charged to a user also take one from their client IP's
+ * bucket first; users sharing an address (NAT, office proxy) therefore don't share a
+ * limit. An empty bucket answers 429 with Retry-After. Limits are app.rate-limit.&lt;group&gt;.capacity (burst) and
+ * .per-second (sustained rate); see application.properties.
+ *
+ * The client IP is {@code getRemoteAddr()}. Behind a reverse proxy that is the proxy,
+ * unless server.forward-headers-strategy=native lets Tomcat take it from
+ * X-Forwarded-For; it only does so for proxies matching
+ * server.tomcat.remoteip.internal-proxies, so clients can't pick their own bucket.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final TokenBuckets<Key> buckets;
+    private final Limit perIp;
+    private final List<Group> groups;
+    private final ObjectMapper json;
+    private final AntPathMatcher paths = new AntPathMatcher();
+    private final LongAdder limited = new LongAdder();
+
+    public RateLimitFilter(ObjectMapper json,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets,
+                           @Value("${app.rate-limit.stripes:64}") int stripes,
+                           @Value("${app.rate-limit.ip.capacity:300}") int ipCapacity,
+                           @Value("${app.rate-limit.ip.per-second:50}") double ipPerSecond,
+                           @Value("${app.rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${app.rate-limit.auth.per-second:0.2}") double authPerSecond,
+                           @Value("${app.rate-limit.sync.capacity:10}") int syncCapacity,
+                           @Value("${app.rate-limit.sync.per-second:1}") double syncPerSecond,
+                           @Value("${app.rate-limit.polling.capacity:30}") int pollingCapacity,
+                           @Value("${app.rate-limit.polling.per-second:2}") double pollingPerSecond,
+                           @Value("${app.rate-limit.default.capacity:120}") int defaultCapacity,
+                           @Value("${app.rate-limit.default.per-second:20}") double defaultPerSecond) {
+        this.enabled = enabled;
+        this.buckets = new TokenBuckets<>(maxBuckets, stripes);
+        this.perIp = new Limit(ipCapacity, ipPerSecond);
+        // First match wins
+        this.groups = List.of(
+            new Group("auth", new Limit(authCapacity, authPerSecond), true, "/api/v1/auth/**"),
+            new Group("sync", new Limit(syncCapacity, syncPerSecond), false, "/api/v1/sync/**"),
+            new Group("polling", new Limit(pollingCapacity, pollingPerSecond), false, "/api/v1/dashboard/**", "/api/v1/statistics/**"),
+            new Group("default", new Limit(defaultCapacity, defaultPerSecond), false, "/api/**"));
+        this.json = json;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        String ip = req.getRemoteAddr();
+        Group group = group(req.getRequestURI().substring(req.getContextPath().length()));
+        Long user = group != null && !group.perIp() ? userKey() : null;
+        long waitNanos;
+        if (user != null) {
+            waitNanos = buckets.tryAcquire(new Key(group.name(), user), group.limit());
+        } else {
+            waitNanos = buckets.tryAcquire(new Key("ip", ip), perIp);
+            if (waitNanos == 0 && group != null) {
+                waitNanos = buckets.tryAcquire(new Key(group.name(), ip), group.limit());
+            }
+        }
+        if (waitNanos > 0) {
+            reject(res, waitNanos);
+            return;
+        }
+        chain.doFilter(req, res);
+    }
+
+    public Stats stats() {
+        return new Stats(buckets.size(), buckets.evictions(), limited.sum());
+    }
+
+    private Group group(String path) {
+        for (Group group : groups) {
+            for (String pattern : group.patterns()) {
+                if (paths.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Long userKey() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof AuthUser user ? user.key() : null;
+    }
+
+    private void reject(HttpServletResponse res, long waitNanos) throws IOException {
+        limited.increment();
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        json.writeValue(res.getOutputStream(), ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .error("Too Many Requests")
+            .message("Rate limit exceeded, please retry later")
+            .build());
+    }
+
+    private record Group(String name, Limit limit, boolean perIp, String... patterns) {
+    }
+
+    // owner is the user key (Long) or the client IP (String)
+    private record Key(String group, Object owner) {
+    }
+
+    /**
+     * Live buckets, buckets evicted to stay under max-buckets, and requests answered 429
+     */
+    public record Stats(int buckets, long evictions, long limited) {
+    }
+}
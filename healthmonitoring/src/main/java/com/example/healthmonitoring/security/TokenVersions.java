@@ -0,0 +1,66 @@
+package com.example.healthmonitoring.security;
+
+import com.example.healthmonitoring.auth.repo.UserRepository;
+import com.example.healthmonitoring.common.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of users.token_version, for revoking tokens without a lookup per request.
+ *
+ * A token carries the version its user was at when it was issued ("tv" claim) and is
+ * rejected once the user's version has moved past it. Only users who ever revoked are
+ * held; everyone else is at 0. Revocations made on this instance apply on commit, those
+ * made elsewhere on the next refresh. Versions only grow, so a refresh never lowers one.
+ */
+@Slf4j
+@Component
+public class TokenVersions {
+
+    private final UserRepository users;
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersions(UserRepository users) {
+        this.users = users;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.token-version-refresh:30s}",
+               initialDelayString = "${app.security.token-version-refresh:30s}")
+    public void refresh() {
+        // Merged into the live map, so a revocation committed here meanwhile is never lost
+        for (var v : users.findRaisedTokenVersions()) {
+            versions.merge(v.userKey(), v.version(), Math::max);
+        }
+        log.debug("Token versions loaded: {} users", versions.size());
+    }
+
+    public int current(long userKey) {
+        return versions.getOrDefault(userKey, 0);
+    }
+
+    /**
+     * Whether a token issued at {@code tokenVersion} has since been revoked
+     */
+    public boolean isRevoked(long userKey, int tokenVersion) {
+        return tokenVersion < current(userKey);
+    }
+
+    /**
+     * Revoke every token issued to the user so far; returns the version new tokens get
+     */
+    @Transactional
+    public int revokeAll(long userKey) {
+        users.incrementTokenVersion(userKey);
+        int version = users.findTokenVersion(userKey)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        AfterCommit.run(() -> versions.merge(userKey, version, Math::max));
+        return version;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.healthmonitoring.security;
+
+import com.example.healthmonitoring.auth.repo.UserRepository;
+import com.example.healthmonitoring.common.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of "does this email belong to a user" answers (with the
+ * user's key), so authenticated requests don't hit the users table every time.
+ */
+@Component
+public class UserExistenceCache {
+
+    private final UserRepository users;
+    // users.user_key starts at 1; 0 means no such user
+    private static final long NO_USER = 0;
+
+    private final BoundedCache<String, Long> cache;
+
+    public UserExistenceCache(UserRepository users,
+                              @Value("${app.security.user-cache-size:10000}") int maxSize,
+                              @Value("${app.security.user-cache-ttl:60s}") Duration ttl) {
+        this.users = users;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public boolean exists(String email) {
+        return userKey(email) != NO_USER;
+    }
+
+    /**
+     * users.user_key for the email, or 0 if there is no such user
+     */
+    public long userKey(String email) {
+        Long cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        long key = users.findKeyByEmail(email).orElse(NO_USER);
+        cache.put(email, key);
+        return key;
+    }
+
+    /**
+     * Call whenever a user is created, changed or removed
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.healthmonitoring.statistics;
+
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DailyRollupService {
+
+    // Two years, leap day included; the response holds one entry per day
+    public static final int MAX_DAYS = 731;
+
+    private final DailyTotalsService totalsService;
+
+    /**
+     * Per-day totals for [from, to] from a single range lookup on daily_user_totals.
+     * Days without any logs are zero-filled. Ranges over {@link #MAX_DAYS} are rejected.
+     */
+    public List<DayTotals> rollup(String userId, LocalDate from, LocalDate to) {
+        long range = ChronoUnit.DAYS.between(from, to) + 1;
+        if (range <= 0) {
+            return List.of();
+        }
+        if (range > MAX_DAYS) {
+            throw new IllegalArgumentException("Date range must be at most " + MAX_DAYS + " days");
+        }
+        int days = (int) range;
+
+        int[] water = new int[days];
+        int[] caloriesIn = new int[days];
+        int[] caloriesOut = new int[days];
+
+        for (DailyUserTotal row : totalsService.getDays(userId, from, to)) {
+            int index = (int) ChronoUnit.DAYS.between(from, row.getDay());
+            if (index >= 0 && index < days) {
+                water[index] = row.getWaterMl();
+                caloriesIn[index] = row.getKcalIn();
+                caloriesOut[index] = row.getKcalOut();
+            }
+        }
+
+        List<DayTotals> result = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            result.add(new DayTotals(from.plusDays(i), water[i], caloriesIn[i], caloriesOut[i]));
+        }
+        return result;
+    }
+
+    public record DayTotals(LocalDate date, int waterMl, int caloriesIn, int caloriesOut) {
+
+        public int netCalories() {
+            return caloriesIn - caloriesOut;
+        }
+    }
+}
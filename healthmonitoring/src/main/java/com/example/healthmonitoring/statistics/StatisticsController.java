@@ -1,15 +1,15 @@
 package com.example.healthmonitoring.statistics;
 
-import com.example.healthmonitoring.activity.repo.ActivityLogRepository;
-import com.example.healthmonitoring.meal.repo.MealLogRepository;
-import com.example.healthmonitoring.water.repo.WaterLogRepository;
+import com.example.healthmonitoring.common.MediaTypes;
+import com.example.healthmonitoring.totals.dto.RangeTotals;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
 import lombok.*;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -19,9 +19,8 @@ import java.util.*;
 @RequiredArgsConstructor
 public class StatisticsController {
 
-    private final WaterLogRepository waterRepo;
-    private final MealLogRepository mealRepo;
-    private final ActivityLogRepository activityRepo;
+    private final DailyTotalsService totalsService;
+    private final DailyRollupService rollupService;
 
 
     private String getUserId(Authentication auth) {
@@ -37,13 +36,10 @@ public class StatisticsController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         
-        String userId = getUserId(auth);
-        LocalDateTime start = from.atStartOfDay();
-        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
-
-        long totalWater = waterRepo.sumAmountByUserAndRange(userId, start, end);
-        int totalCaloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-        int totalCaloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
+        RangeTotals totals = totalsService.getRange(getUserId(auth), from, to);
+        long totalWater = totals.waterMl();
+        int totalCaloriesIn = totals.caloriesIn();
+        int totalCaloriesOut = totals.caloriesOut();
         int netCalories = totalCaloriesIn - totalCaloriesOut;
 
         long days = ChronoUnit.DAYS.between(from, to) + 1;
@@ -72,30 +68,19 @@ public class StatisticsController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         
-        String userId = getUserId(auth);
-        List<DailyStats> result = new ArrayList<>();
-
-        LocalDate current = from;
-        while (!current.isAfter(to)) {
-            LocalDateTime start = current.atStartOfDay();
-            LocalDateTime end = current.plusDays(1).atStartOfDay().minusNanos(1);
-
-            long water = waterRepo.sumAmountByUserAndRange(userId, start, end);
-            int caloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-            int caloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
-
-            result.add(DailyStats.builder()
-                .date(current)
-                .waterMl((int) water)
-                .caloriesIn(caloriesIn)
-                .caloriesOut(caloriesOut)
-                .netCalories(caloriesIn - caloriesOut)
-                .build());
+        return toDailyStats(rollupService.rollup(getUserId(auth), from, to));
+    }
 
-            current = current.plusDays(1);
-        }
+    /**
+     * Get daily breakdown as parallel arrays (Accept: columns+json or CBOR)
+     */
+    @GetMapping(value = "/daily", produces = {MediaTypes.COLUMNS_JSON, MediaType.APPLICATION_CBOR_VALUE})
+    public DailyColumns getDailyColumns(
+            Authentication auth,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
 
-        return result;
+        return DailyColumns.of(rollupService.rollup(getUserId(auth), from, to));
     }
 
     /**
@@ -103,52 +88,55 @@ public class StatisticsController {
      */
     @GetMapping("/weekly")
     public WeeklyStats getWeeklyStats(Authentication auth) {
-        String userId = getUserId(auth);
         LocalDate today = LocalDate.now();
         LocalDate weekStart = today.minusDays(6); // Last 7 days
 
-        LocalDateTime start = weekStart.atStartOfDay();
-        LocalDateTime end = today.plusDays(1).atStartOfDay().minusNanos(1);
-
-        long totalWater = waterRepo.sumAmountByUserAndRange(userId, start, end);
-        int totalCaloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-        int totalCaloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
-
-        // Get daily breakdown
-        List<DailyStats> dailyData = new ArrayList<>();
-        LocalDate current = weekStart;
-        while (!current.isAfter(today)) {
-            LocalDateTime dayStart = current.atStartOfDay();
-            LocalDateTime dayEnd = current.plusDays(1).atStartOfDay().minusNanos(1);
-
-            long water = waterRepo.sumAmountByUserAndRange(userId, dayStart, dayEnd);
-            int caloriesIn = mealRepo.sumKcalByUserAndRange(userId, dayStart, dayEnd);
-            int caloriesOut = activityRepo.sumKcalByUserAndRange(userId, dayStart, dayEnd);
-
-            dailyData.add(DailyStats.builder()
-                .date(current)
-                .waterMl((int) water)
-                .caloriesIn(caloriesIn)
-                .caloriesOut(caloriesOut)
-                .netCalories(caloriesIn - caloriesOut)
-                .build());
+        List<DailyRollupService.DayTotals> days = rollupService.rollup(getUserId(auth), weekStart, today);
+        List<DailyStats> dailyData = toDailyStats(days);
 
-            current = current.plusDays(1);
-        }
+        int totalWater = dailyData.stream().mapToInt(DailyStats::getWaterMl).sum();
+        int totalCaloriesIn = dailyData.stream().mapToInt(DailyStats::getCaloriesIn).sum();
+        int totalCaloriesOut = dailyData.stream().mapToInt(DailyStats::getCaloriesOut).sum();
 
         return WeeklyStats.builder()
             .weekStart(weekStart)
             .weekEnd(today)
-            .totalWaterMl((int) totalWater)
+            .totalWaterMl(totalWater)
             .totalCaloriesIn(totalCaloriesIn)
             .totalCaloriesOut(totalCaloriesOut)
-            .avgWaterPerDay((int) totalWater / 7)
+            .avgWaterPerDay(totalWater / 7)
             .avgCaloriesInPerDay(totalCaloriesIn / 7)
             .avgCaloriesOutPerDay(totalCaloriesOut / 7)
             .dailyBreakdown(dailyData)
             .build();
     }
 
+    /**
+     * Get weekly statistics with the breakdown as parallel arrays (Accept: columns+json or CBOR)
+     */
+    @GetMapping(value = "/weekly", produces = {MediaTypes.COLUMNS_JSON, MediaType.APPLICATION_CBOR_VALUE})
+    public WeeklyColumns getWeeklyColumns(Authentication auth) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(6); // Last 7 days
+
+        DailyColumns days = DailyColumns.of(rollupService.rollup(getUserId(auth), weekStart, today));
+        int totalWater = Arrays.stream(days.getWaterMl()).sum();
+        int totalCaloriesIn = Arrays.stream(days.getCaloriesIn()).sum();
+        int totalCaloriesOut = Arrays.stream(days.getCaloriesOut()).sum();
+
+        return WeeklyColumns.builder()
+            .weekStart(weekStart.toEpochDay())
+            .weekEnd(today.toEpochDay())
+            .totalWaterMl(totalWater)
+            .totalCaloriesIn(totalCaloriesIn)
+            .totalCaloriesOut(totalCaloriesOut)
+            .avgWaterPerDay(totalWater / 7)
+            .avgCaloriesInPerDay(totalCaloriesIn / 7)
+            .avgCaloriesOutPerDay(totalCaloriesOut / 7)
+            .days(days)
+            .build();
+    }
+
     /**
      * Get monthly statistics
      */
@@ -166,12 +154,10 @@ public class StatisticsController {
         LocalDate monthStart = LocalDate.of(targetYear, targetMonth, 1);
         LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
 
-        LocalDateTime start = monthStart.atStartOfDay();
-        LocalDateTime end = monthEnd.plusDays(1).atStartOfDay().minusNanos(1);
-
-        long totalWater = waterRepo.sumAmountByUserAndRange(userId, start, end);
-        int totalCaloriesIn = mealRepo.sumKcalByUserAndRange(userId, start, end);
-        int totalCaloriesOut = activityRepo.sumKcalByUserAndRange(userId, start, end);
+        RangeTotals totals = totalsService.getRange(userId, monthStart, monthEnd);
+        long totalWater = totals.waterMl();
+        int totalCaloriesIn = totals.caloriesIn();
+        int totalCaloriesOut = totals.caloriesOut();
 
         int days = monthEnd.getDayOfMonth();
 
@@ -190,6 +176,20 @@ public class StatisticsController {
             .build();
     }
 
+    private List<DailyStats> toDailyStats(List<DailyRollupService.DayTotals> days) {
+        List<DailyStats> result = new ArrayList<>(days.size());
+        for (DailyRollupService.DayTotals day : days) {
+            result.add(DailyStats.builder()
+                .date(day.date())
+                .waterMl(day.waterMl())
+                .caloriesIn(day.caloriesIn())
+                .caloriesOut(day.caloriesOut())
+                .netCalories(day.netCalories())
+                .build());
+        }
+        return result;
+    }
+
     // DTOs
     @Data
     @Builder
@@ -228,6 +228,49 @@ public class StatisticsController {
         private List<DailyStats> dailyBreakdown;
     }
 
+    /**
+     * Daily breakdown as parallel arrays; index i of every array is the same day.
+     * Dates are epoch days and net calories are left to the client (in - out).
+     */
+    @Data
+    @Builder
+    public static class DailyColumns {
+        private long[] day;
+        private int[] waterMl;
+        private int[] caloriesIn;
+        private int[] caloriesOut;
+
+        public static DailyColumns of(List<DailyRollupService.DayTotals> days) {
+            int n = days.size();
+            long[] day = new long[n];
+            int[] water = new int[n];
+            int[] in = new int[n];
+            int[] out = new int[n];
+            for (int i = 0; i < n; i++) {
+                DailyRollupService.DayTotals d = days.get(i);
+                day[i] = d.date().toEpochDay();
+                water[i] = d.waterMl();
+                in[i] = d.caloriesIn();
+                out[i] = d.caloriesOut();
+            }
+            return new DailyColumns(day, water, in, out);
+        }
+    }
+
+    @Data
+    @Builder
+    public static class WeeklyColumns {
+        private long weekStart;
+        private long weekEnd;
+        private int totalWaterMl;
+        private int totalCaloriesIn;
+        private int totalCaloriesOut;
+        private int avgWaterPerDay;
+        private int avgCaloriesInPerDay;
+        private int avgCaloriesOutPerDay;
+        private DailyColumns days;
+    }
+
     @Data
     @Builder
     public static class MonthlyStats {
@@ -0,0 +1,29 @@
+package com.example.healthmonitoring.sync.controller;
+
+import com.example.healthmonitoring.security.AuthUser;
+import com.example.healthmonitoring.sync.dto.SyncDtos;
+import com.example.healthmonitoring.sync.service.SyncService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    private String getUserId(Authentication auth) {
+        return auth.getName();
+    }
+
+    /**
+     * Apply a batch of offline-queued logs; safe to retry with the same keys
+     */
+    @PostMapping("/batch")
+    public SyncDtos.BatchRes batch(@Valid @RequestBody SyncDtos.BatchReq request, Authentication auth) {
+        return syncService.ingest(getUserId(auth), AuthUser.of(auth).key(), request.getEntries());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.healthmonitoring.sync.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SyncDtos {
+
+    public static final int MAX_ENTRIES = 500;
+
+    public enum Status { CREATED, DUPLICATE, REJECTED }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchReq {
+        @NotNull(message = "entries is required")
+        @Size(max = MAX_ENTRIES, message = "At most " + MAX_ENTRIES + " entries per batch")
+        private List<Entry> entries;
+    }
+
+    /**
+     * One queued log. {@code key} is generated on the device and identifies the
+     * entry across retries; which other fields are used depends on {@code type}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String key;
+        private String type;              // WATER, MEAL, ACTIVITY, WEIGHT
+        private LocalDateTime createdAt;  // when it was logged on the device; defaults to now
+
+        private Integer amount;           // WATER: ml
+        private Long foodId;              // MEAL
+        private Double servings;          // MEAL
+        private String name;              // ACTIVITY
+        private Double met;               // ACTIVITY
+        private Integer minutes;          // ACTIVITY
+        private Double weightKg;          // ACTIVITY, WEIGHT
+        private String note;              // WEIGHT
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemResult {
+        private String key;
+        private Status status;
+        private Long id;        // id of the stored log (CREATED, DUPLICATE)
+        private String error;   // reason (REJECTED)
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BatchRes {
+        private int created;
+        private int duplicates;
+        private int rejected;
+        private List<ItemResult> results;   // same order as the request
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.healthmonitoring.sync.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Records that a client idempotency key was already applied, and which log it created.
+ * Receipts are only ever inserted, so {@link #isNew()} lets saveAll persist them without
+ * the select-before-merge Spring Data does for assigned ids.
+ */
+@Entity
+@Table(name = "sync_receipts")
+@IdClass(SyncReceipt.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncReceipt implements Persistable<SyncReceipt.Key> {
+    @Id
+    @Column(nullable = false)
+    private String userId;
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String idemKey;
+
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    @Builder.Default
+    private boolean fresh = true;
+
+    @Override
+    public Key getId() {
+        return new Key(userId, idemKey);
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String userId;
+        private String idemKey;
+    }
+}
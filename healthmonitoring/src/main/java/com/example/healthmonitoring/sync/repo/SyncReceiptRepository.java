@@ -0,0 +1,12 @@
+package com.example.healthmonitoring.sync.repo;
+
+import com.example.healthmonitoring.sync.entity.SyncReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SyncReceiptRepository extends JpaRepository<SyncReceipt, SyncReceipt.Key> {
+
+    List<SyncReceipt> findByUserIdAndIdemKeyIn(String userId, Collection<String> idemKeys);
+}
@@ -0,0 +1,270 @@
+package com.example.healthmonitoring.sync.service;
+
+import com.example.healthmonitoring.activity.entity.ActivityLog;
+import com.example.healthmonitoring.activity.repo.ActivityLogRepository;
+import com.example.healthmonitoring.activity.service.ActivityService;
+import com.example.healthmonitoring.bmi.entity.WeightLog;
+import com.example.healthmonitoring.bmi.repo.WeightLogRepository;
+import com.example.healthmonitoring.meal.entity.Food;
+import com.example.healthmonitoring.meal.entity.MealLog;
+import com.example.healthmonitoring.meal.repo.FoodRepository;
+import com.example.healthmonitoring.meal.repo.MealLogRepository;
+import com.example.healthmonitoring.meal.service.FoodCatalog;
+import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.profile.service.HealthCalculationService;
+import com.example.healthmonitoring.profile.service.ProfileService;
+import com.example.healthmonitoring.sync.dto.SyncDtos;
+import com.example.healthmonitoring.sync.dto.SyncDtos.*;
+import com.example.healthmonitoring.sync.entity.SyncReceipt;
+import com.example.healthmonitoring.sync.repo.SyncReceiptRepository;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import com.example.healthmonitoring.water.entity.WaterLog;
+import com.example.healthmonitoring.water.repo.WaterLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Applies offline-queued logs in one transaction.
+ *
+ * Each entry carries a client key; keys already seen (in an earlier batch or earlier
+ * in the same batch) come back as DUPLICATE with the id of the stored log, so a
+ * client can resend a whole queue after a dropped response. Invalid entries are
+ * REJECTED individually and do not fail the rest of the batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+    // Device clocks drift; anything further in the future than this is rejected
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final SyncReceiptRepository receiptRepo;
+    private final WaterLogRepository waterRepo;
+    private final MealLogRepository mealRepo;
+    private final ActivityLogRepository activityRepo;
+    private final WeightLogRepository weightRepo;
+    private final FoodRepository foodRepo;
+    private final FoodCatalog foodCatalog;
+    private final UserProfileRepository profileRepo;
+    private final ActivityService activityService;
+    private final HealthCalculationService healthCalc;
+    private final ProfileService profileService;
+    private final DailyTotalsService totalsService;
+
+    @Transactional
+    public BatchRes ingest(String userId, long userKey, List<Entry> entries) {
+        if (entries.size() > SyncDtos.MAX_ENTRIES) {
+            throw new IllegalArgumentException("At most " + SyncDtos.MAX_ENTRIES + " entries per batch");
+        }
+        ItemResult[] results = new ItemResult[entries.size()];
+        LocalDateTime latestAllowed = LocalDateTime.now().plus(MAX_CLOCK_SKEW);
+
+        // Keys applied by an earlier batch
+        Set<String> keys = new HashSet<>();
+        for (Entry e : entries) {
+            if (e != null && e.getKey() != null) keys.add(e.getKey());
+        }
+        Map<String, SyncReceipt> seen = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (SyncReceipt r : receiptRepo.findByUserIdAndIdemKeyIn(userId, keys)) {
+                seen.put(r.getIdemKey(), r);
+            }
+        }
+
+        Map<Long, Food> foods = resolveFoods(entries);
+        UserProfile profile = null;
+        boolean profileLoaded = false;
+
+        List<Pending<WaterLog>> water = new ArrayList<>();
+        List<Pending<MealLog>> meals = new ArrayList<>();
+        List<Pending<ActivityLog>> activities = new ArrayList<>();
+        List<Pending<WeightLog>> weights = new ArrayList<>();
+        Set<String> claimed = new HashSet<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            String error = validate(e, latestAllowed);
+            if (error != null) {
+                results[i] = new ItemResult(e != null ? e.getKey() : null, Status.REJECTED, null, error);
+                continue;
+            }
+            SyncReceipt receipt = seen.get(e.getKey());
+            if (receipt != null) {
+                results[i] = new ItemResult(e.getKey(), Status.DUPLICATE, receipt.getEntityId(), null);
+                continue;
+            }
+            if (!claimed.add(e.getKey())) {
+                // Resolved to the first occurrence's id once it is saved
+                results[i] = new ItemResult(e.getKey(), Status.DUPLICATE, null, null);
+                continue;
+            }
+
+            switch (type(e)) {
+                case "WATER" -> {
+                    var log = new WaterLog();
+                    log.setUserId(userId);
+                    log.setUserKey(userKey);
+                    log.setAmount(e.getAmount());
+                    log.setCreatedAt(e.getCreatedAt());
+                    water.add(new Pending<>(i, e.getKey(), log));
+                }
+                case "MEAL" -> {
+                    Food food = foods.get(e.getFoodId());
+                    if (food == null) {
+                        results[i] = new ItemResult(e.getKey(), Status.REJECTED, null, "Food not found");
+                        claimed.remove(e.getKey());
+                        continue;
+                    }
+                    var log = new MealLog();
+                    log.setUserId(userId);
+                    log.setUserKey(userKey);
+                    log.setFood(food);
+                    log.setServings(e.getServings());
+                    log.setTotalKcal((int) Math.round(food.getKcalPerServing() * e.getServings()));
+                    log.setCreatedAt(e.getCreatedAt());
+                    meals.add(new Pending<>(i, e.getKey(), log));
+                }
+                case "ACTIVITY" -> {
+                    var log = new ActivityLog();
+                    log.setUserId(userId);
+                    log.setUserKey(userKey);
+                    log.setName(e.getName());
+                    log.setMet(e.getMet());
+                    log.setMinutes(e.getMinutes());
+                    log.setWeightKgAtTime(e.getWeightKg());
+                    log.setTotalKcal(activityService.calcKcal(e.getMet(), e.getWeightKg(), e.getMinutes()));
+                    log.setCreatedAt(e.getCreatedAt());
+                    activities.add(new Pending<>(i, e.getKey(), log));
+                }
+                case "WEIGHT" -> {
+                    if (!profileLoaded) {
+                        profile = profileRepo.findByUserId(userId).orElse(null);
+                        profileLoaded = true;
+                    }
+                    if (profile == null) {
+                        results[i] = new ItemResult(e.getKey(), Status.REJECTED, null,
+                            "Profile not found. Please create profile first.");
+                        claimed.remove(e.getKey());
+                        continue;
+                    }
+                    WeightLog log = WeightLog.builder()
+                        .userId(userId)
+                        .userKey(userKey)
+                        .weightKg(e.getWeightKg())
+                        .bmi(healthCalc.calculateBMI(e.getWeightKg(), profile.getHeightCm()))
+                        .note(e.getNote())
+                        .createdAt(e.getCreatedAt())
+                        .build();
+                    weights.add(new Pending<>(i, e.getKey(), log));
+                }
+                default -> throw new IllegalStateException();
+            }
+        }
+
+        List<SyncReceipt> receipts = new ArrayList<>();
+        Map<String, Long> createdIds = new HashMap<>();
+
+        waterRepo.saveAll(logs(water));
+        record(water, "WATER", WaterLog::getId, userId, results, receipts, createdIds);
+        mealRepo.saveAll(logs(meals));
+        record(meals, "MEAL", MealLog::getId, userId, results, receipts, createdIds);
+        activityRepo.saveAll(logs(activities));
+        record(activities, "ACTIVITY", ActivityLog::getId, userId, results, receipts, createdIds);
+        weightRepo.saveAll(logs(weights));
+        record(weights, "WEIGHT", WeightLog::getId, userId, results, receipts, createdIds);
+
+        receiptRepo.saveAll(receipts);
+        totalsService.logsImported(userId, logs(water), logs(meals), logs(activities));
+
+        if (!weights.isEmpty()) {
+            // Only move the profile if one of the imported entries is now the latest weight
+            weightRepo.findFirstByUserKeyOrderByCreatedAtDesc(userKey)
+                .filter(latest -> weights.stream().anyMatch(p -> p.log() == latest))
+                .ifPresent(latest -> profileService.updateWeight(userId, latest.getWeightKg()));
+        }
+
+        int created = 0, duplicates = 0, rejected = 0;
+        for (int i = 0; i < results.length; i++) {
+            ItemResult r = results[i];
+            if (r.getStatus() == Status.DUPLICATE && r.getId() == null) {
+                results[i] = r = new ItemResult(r.getKey(), Status.DUPLICATE, createdIds.get(r.getKey()), null);
+            }
+            switch (r.getStatus()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+            }
+        }
+        return new BatchRes(created, duplicates, rejected, Arrays.asList(results));
+    }
+
+    private String validate(Entry e, LocalDateTime latestAllowed) {
+        if (e == null) return "Entry is required";
+        if (e.getKey() == null || e.getKey().isBlank()) return "key is required";
+        if (e.getKey().length() > MAX_KEY_LENGTH) return "key must be at most " + MAX_KEY_LENGTH + " characters";
+        if (e.getCreatedAt() != null && e.getCreatedAt().isAfter(latestAllowed)) return "createdAt is in the future";
+        return switch (type(e)) {
+            case "WATER" -> e.getAmount() == null || e.getAmount() <= 0 ? "Amount must be positive" : null;
+            case "MEAL" -> e.getFoodId() == null ? "foodId is required"
+                : e.getServings() == null || e.getServings() <= 0 ? "servings must be > 0" : null;
+            case "ACTIVITY" -> e.getName() == null || e.getName().isBlank() ? "name is required"
+                : e.getMet() == null || e.getMet() <= 0
+                    || e.getMinutes() == null || e.getMinutes() <= 0
+                    || e.getWeightKg() == null || e.getWeightKg() <= 0 ? "invalid input" : null;
+            case "WEIGHT" -> e.getWeightKg() == null || e.getWeightKg() < 20 || e.getWeightKg() > 500
+                ? "Weight must be between 20kg and 500kg" : null;
+            default -> "Unknown type: " + e.getType();
+        };
+    }
+
+    private static String type(Entry e) {
+        return e.getType() == null ? "" : e.getType().toUpperCase(Locale.ROOT);
+    }
+
+    // Catalog first; one query for foods added since the last refresh
+    private Map<Long, Food> resolveFoods(List<Entry> entries) {
+        Map<Long, Food> foods = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Entry e : entries) {
+            if (e == null || e.getFoodId() == null || !"MEAL".equals(type(e))) continue;
+            foodCatalog.find(e.getFoodId()).ifPresentOrElse(f -> foods.put(f.getId(), f), () -> missing.add(e.getFoodId()));
+        }
+        if (!missing.isEmpty()) {
+            for (Food f : foodRepo.findAllById(missing)) {
+                foods.put(f.getId(), f);
+            }
+        }
+        return foods;
+    }
+
+    private static <T> List<T> logs(List<Pending<T>> pending) {
+        return pending.stream().map(Pending::log).toList();
+    }
+
+    private static <T> void record(List<Pending<T>> pending, String kind, Function<T, Long> idOf, String userId,
+                                   ItemResult[] results, List<SyncReceipt> receipts, Map<String, Long> createdIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Pending<T> p : pending) {
+            Long id = idOf.apply(p.log());
+            results[p.index()] = new ItemResult(p.key(), Status.CREATED, id, null);
+            createdIds.put(p.key(), id);
+            receipts.add(SyncReceipt.builder()
+                .userId(userId)
+                .idemKey(p.key())
+                .kind(kind)
+                .entityId(id)
+                .createdAt(now)
+                .build());
+        }
+    }
+
+    private record Pending<T>(int index, String key, T log) {}
+}
@@ -0,0 +1,20 @@
+package com.example.healthmonitoring.totals.dto;
+
+/**
+ * Sums of {@code daily_user_totals} rows over a day range.
+ */
+public record RangeTotals(Long waterMl, Long kcalIn, Long kcalOut,
+                          Long waterLogs, Long mealLogs, Long activityLogs) {
+
+    public int water() {
+        return Math.toIntExact(waterMl);
+    }
+
+    public int caloriesIn() {
+        return Math.toIntExact(kcalIn);
+    }
+
+    public int caloriesOut() {
+        return Math.toIntExact(kcalOut);
+    }
+}
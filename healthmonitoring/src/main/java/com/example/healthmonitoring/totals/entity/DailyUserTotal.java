@@ -0,0 +1,57 @@
+package com.example.healthmonitoring.totals.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-day running totals, maintained on every log write
+ * so reads don't have to aggregate the raw log tables.
+ */
+@Entity
+@Table(name = "daily_user_totals")
+@IdClass(DailyUserTotal.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyUserTotal {
+    @Id
+    @Column(nullable = false)
+    private String userId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private int waterMl;
+
+    @Column(nullable = false)
+    private int kcalIn;
+
+    @Column(nullable = false)
+    private int kcalOut;
+
+    @Column(nullable = false)
+    private int waterLogs;
+
+    @Column(nullable = false)
+    private int mealLogs;
+
+    @Column(nullable = false)
+    private int activityLogs;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String userId;
+        private LocalDate day;
+    }
+}
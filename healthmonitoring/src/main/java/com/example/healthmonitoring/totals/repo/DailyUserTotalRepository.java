@@ -0,0 +1,74 @@
+package com.example.healthmonitoring.totals.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.healthmonitoring.totals.dto.RangeTotals;
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+
+public interface DailyUserTotalRepository extends JpaRepository<DailyUserTotal, DailyUserTotal.Key> {
+
+    Optional<DailyUserTotal> findByUserIdAndDay(String userId, LocalDate day);
+
+    List<DailyUserTotal> findByUserIdAndDayBetweenOrderByDayAsc(String userId, LocalDate from, LocalDate to);
+
+    @Query("""
+           select new com.example.healthmonitoring.totals.dto.RangeTotals(
+               coalesce(sum(t.waterMl), 0), coalesce(sum(t.kcalIn), 0), coalesce(sum(t.kcalOut), 0),
+               coalesce(sum(t.waterLogs), 0), coalesce(sum(t.mealLogs), 0), coalesce(sum(t.activityLogs), 0))
+           from DailyUserTotal t
+           where t.userId = ?1 and t.day between ?2 and ?3
+           """)
+    RangeTotals sumByUserAndRange(String userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = """
+           insert into daily_user_totals
+               (user_id, day, water_ml, kcal_in, kcal_out, water_logs, meal_logs, activity_logs)
+           values (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8)
+           on conflict (user_id, day) do update set
+               water_ml = daily_user_totals.water_ml + excluded.water_ml,
+               kcal_in = daily_user_totals.kcal_in + excluded.kcal_in,
+               kcal_out = daily_user_totals.kcal_out + excluded.kcal_out,
+               water_logs = daily_user_totals.water_logs + excluded.water_logs,
+               meal_logs = daily_user_totals.meal_logs + excluded.meal_logs,
+               activity_logs = daily_user_totals.activity_logs + excluded.activity_logs
+           """, nativeQuery = true)
+    void applyDelta(String userId, LocalDate day, int waterMl, int kcalIn, int kcalOut,
+                    int waterLogs, int mealLogs, int activityLogs);
+
+    @Modifying
+    @Query(value = "lock table daily_user_totals in exclusive mode", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "delete from daily_user_totals where day >= ?1", nativeQuery = true)
+    void deleteFrom(LocalDate since);
+
+    @Modifying
+    @Query(value = """
+           insert into daily_user_totals
+               (user_id, day, water_ml, kcal_in, kcal_out, water_logs, meal_logs, activity_logs)
+           select user_id, day, sum(water_ml), sum(kcal_in), sum(kcal_out),
+                  sum(water_logs), sum(meal_logs), sum(activity_logs)
+           from (
+               select user_id, cast(created_at as date) as day, amount as water_ml, 0 as kcal_in, 0 as kcal_out,
+                      1 as water_logs, 0 as meal_logs, 0 as activity_logs
+               from water_logs where created_at >= ?1
+               union all
+               select user_id, cast(created_at as date), 0, total_kcal, 0, 0, 1, 0
+               from meal_logs where created_at >= ?1
+               union all
+               select user_id, cast(created_at as date), 0, 0, total_kcal, 0, 0, 1
+               from activity_logs where created_at >= ?1
+           ) logs
+           group by user_id, day
+           """, nativeQuery = true)
+    int insertFromLogs(LocalDateTime since);
+}
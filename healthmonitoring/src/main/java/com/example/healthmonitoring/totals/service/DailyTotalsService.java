@@ -0,0 +1,161 @@
+package com.example.healthmonitoring.totals.service;
+
+import com.example.healthmonitoring.activity.entity.ActivityLog;
+import com.example.healthmonitoring.common.AfterCommit;
+import com.example.healthmonitoring.meal.entity.MealLog;
+import com.example.healthmonitoring.partition.LogPartitionService;
+import com.example.healthmonitoring.totals.dto.RangeTotals;
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+import com.example.healthmonitoring.totals.repo.DailyUserTotalRepository;
+import com.example.healthmonitoring.water.entity.WaterLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyTotalsService {
+
+    private final DailyUserTotalRepository totalsRepo;
+    private final TodayTotalsCache todayCache;
+    private final LogPartitionService partitions;
+
+    /**
+     * Apply a water log insert to the owner's daily totals.
+     * Must run in the same transaction as the log write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void waterLogged(WaterLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            log.getAmount(), 0, 0, 1, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void waterDeleted(WaterLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            -log.getAmount(), 0, 0, -1, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void mealLogged(MealLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            0, log.getTotalKcal(), 0, 0, 1, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void mealDeleted(MealLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            0, -log.getTotalKcal(), 0, 0, -1, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void activityLogged(ActivityLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            0, 0, log.getTotalKcal(), 0, 0, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void activityDeleted(ActivityLog log) {
+        applyDelta(log.getUserId(), log.getCreatedAt().toLocalDate(),
+            0, 0, -log.getTotalKcal(), 0, 0, -1);
+    }
+
+    /**
+     * Apply a batch of imported logs, one upsert per affected day.
+     * Must run in the same transaction as the log writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void logsImported(String userId, List<WaterLog> water, List<MealLog> meals, List<ActivityLog> activities) {
+        // water, kcal in, kcal out, water logs, meal logs, activity logs
+        Map<LocalDate, int[]> days = new TreeMap<>();
+        for (WaterLog log : water) {
+            int[] d = days.computeIfAbsent(log.getCreatedAt().toLocalDate(), k -> new int[6]);
+            d[0] += log.getAmount();
+            d[3]++;
+        }
+        for (MealLog log : meals) {
+            int[] d = days.computeIfAbsent(log.getCreatedAt().toLocalDate(), k -> new int[6]);
+            d[1] += log.getTotalKcal();
+            d[4]++;
+        }
+        for (ActivityLog log : activities) {
+            int[] d = days.computeIfAbsent(log.getCreatedAt().toLocalDate(), k -> new int[6]);
+            d[2] += log.getTotalKcal();
+            d[5]++;
+        }
+        days.forEach((day, d) -> applyDelta(userId, day, d[0], d[1], d[2], d[3], d[4], d[5]));
+    }
+
+    private void applyDelta(String userId, LocalDate day, int waterMl, int kcalIn, int kcalOut,
+                            int waterLogs, int mealLogs, int activityLogs) {
+        totalsRepo.applyDelta(userId, day, waterMl, kcalIn, kcalOut, waterLogs, mealLogs, activityLogs);
+        todayCache.apply(userId, day, waterMl, kcalIn, kcalOut);
+    }
+
+    /**
+     * Totals for a single day (all zeros when nothing was logged)
+     */
+    public DailyUserTotal getDay(String userId, LocalDate day) {
+        return totalsRepo.findByUserIdAndDay(userId, day)
+            .orElseGet(() -> DailyUserTotal.builder().userId(userId).day(day).build());
+    }
+
+    /**
+     * Stored rows for [from, to]; days without logs have no row
+     */
+    public List<DailyUserTotal> getDays(String userId, LocalDate from, LocalDate to) {
+        return totalsRepo.findByUserIdAndDayBetweenOrderByDayAsc(userId, from, to);
+    }
+
+    /**
+     * Sums over [from, to]
+     */
+    public RangeTotals getRange(String userId, LocalDate from, LocalDate to) {
+        return totalsRepo.sumByUserAndRange(userId, from, to);
+    }
+
+    /**
+     * Recompute every row from the raw log tables, except for days whose logs
+     * were archived by the partition retention; those rows are kept as they are.
+     * Holds an exclusive lock on the totals table so concurrent log writes
+     * wait for the rebuild instead of being counted twice or lost.
+     */
+    @Transactional
+    public int rebuild() {
+        LocalDate since = partitions.retainedSince();
+        totalsRepo.lockForRebuild();
+        totalsRepo.deleteFrom(since);
+        int rows = totalsRepo.insertFromLogs(since.atStartOfDay());
+        log.info("Rebuilt daily_user_totals since {}: {} rows", since, rows);
+        AfterCommit.run(todayCache::clear);
+        return rows;
+    }
+
+    @Scheduled(cron = "${app.totals.rebuild-cron:-}")
+    @Transactional
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Backfill on first start after the table was introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (totalsRepo.count() == 0) {
+            rebuild();
+        }
+    }
+}
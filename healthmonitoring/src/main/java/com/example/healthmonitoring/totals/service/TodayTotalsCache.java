@@ -0,0 +1,177 @@
+package com.example.healthmonitoring.totals.service;
+
+import com.example.healthmonitoring.common.BoundedCache;
+import com.example.healthmonitoring.common.FanOut;
+import com.example.healthmonitoring.common.WriteStamps;
+import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+import com.example.healthmonitoring.totals.repo.DailyUserTotalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-user "today" accumulator for the dashboard/today-total endpoints.
+ * Loaded once from daily_user_totals and the profile, then kept current by
+ * the log write path; entries from a previous day are treated as misses.
+ */
+@Slf4j
+@Component
+public class TodayTotalsCache {
+
+    private static final int STRIPES = 1024;
+
+    private final DailyUserTotalRepository totalsRepo;
+    private final UserProfileRepository profileRepo;
+    private final BoundedCache<String, TodaySnapshot> cache;
+    private final Duration loadTimeout;
+
+    // Per stripe: bumped on every write, and the writes whose transaction hasn't completed.
+    // A load is only cached if no write was in flight when it started and none began since;
+    // otherwise it may have read a committed delta that apply() is about to add again.
+    private final WriteStamps writeStamps = new WriteStamps(STRIPES);
+    private final AtomicIntegerArray pendingWrites = new AtomicIntegerArray(STRIPES);
+
+    public TodayTotalsCache(DailyUserTotalRepository totalsRepo,
+                            UserProfileRepository profileRepo,
+                            @Value("${app.today-cache.max-size:10000}") int maxSize,
+                            @Value("${app.today-cache.ttl:10m}") Duration ttl,
+                            @Value("${app.fanout.timeout:2s}") Duration loadTimeout) {
+        this.totalsRepo = totalsRepo;
+        this.profileRepo = profileRepo;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+        this.loadTimeout = loadTimeout;
+    }
+
+    /**
+     * Today's totals and goals for the user
+     */
+    public TodaySnapshot get(String userId) {
+        return get(userId, null, false);
+    }
+
+    /**
+     * Same as {@link #get(String)} for a caller that already loaded the profile
+     * (null if the user has none); a miss then only reads the totals row
+     */
+    public TodaySnapshot get(String userId, UserProfile profile) {
+        return get(userId, profile, true);
+    }
+
+    private TodaySnapshot get(String userId, UserProfile knownProfile, boolean profileKnown) {
+        LocalDate today = LocalDate.now();
+        TodaySnapshot cached = cache.getIfPresent(userId, s -> s.day().equals(today));
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = writeStamps.stamp(userId);
+        boolean quiet = pendingWrites.get(writeStamps.stripe(userId)) == 0;
+        TodaySnapshot loaded = profileKnown
+            ? snapshot(today, totalsRepo.findByUserIdAndDay(userId, today).orElse(null), knownProfile)
+            : load(userId, today);
+        if (quiet && writeStamps.unchanged(userId, stamp)) {
+            cache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Apply a log delta written in the current transaction once it commits; ignored
+     * unless the user's entry is for that day. Until the transaction completes, loads
+     * for the user are served but not cached.
+     */
+    public void apply(String userId, LocalDate day, int waterMl, int kcalIn, int kcalOut) {
+        int stripe = writeStamps.stripe(userId);
+        pendingWrites.incrementAndGet(stripe);
+        writeStamps.bump(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(userId, day, waterMl, kcalIn, kcalOut);
+            pendingWrites.decrementAndGet(stripe);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(userId, day, waterMl, kcalIn, kcalOut);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                pendingWrites.decrementAndGet(stripe);
+            }
+        });
+    }
+
+    /**
+     * Drop the user's entry, e.g. after the profile goals changed
+     */
+    public void invalidate(String userId) {
+        writeStamps.bump(userId);
+        cache.invalidate(userId);
+    }
+
+    public void clear() {
+        writeStamps.bumpAll();
+        cache.clear();
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${app.today-cache.stats-log-interval:5m}")
+    public void logStats() {
+        BoundedCache.Stats stats = cache.stats();
+        log.debug("Today cache: size={} hits={} misses={} evictions={}",
+            stats.size(), stats.hits(), stats.misses(), stats.evictions());
+    }
+
+    private void add(String userId, LocalDate day, int waterMl, int kcalIn, int kcalOut) {
+        cache.update(userId, s -> s.day().equals(day) ? s.plus(waterMl, kcalIn, kcalOut) : s);
+    }
+
+    // Totals row and profile are independent; a miss costs the slower of the two reads
+    private TodaySnapshot load(String userId, LocalDate today) {
+        DailyUserTotal totals;
+        UserProfile profile;
+        try (FanOut fan = FanOut.within(loadTimeout)) {
+            Supplier<DailyUserTotal> totalsRead = fan.fork(() -> totalsRepo.findByUserIdAndDay(userId, today).orElse(null));
+            Supplier<UserProfile> profileRead = fan.fork(() -> profileRepo.findByUserId(userId).orElse(null));
+            fan.join();
+            totals = totalsRead.get();
+            profile = profileRead.get();
+        }
+        return snapshot(today, totals, profile);
+    }
+
+    private static TodaySnapshot snapshot(LocalDate today, DailyUserTotal totals, UserProfile profile) {
+        return new TodaySnapshot(
+            today,
+            totals != null ? totals.getWaterMl() : 0,
+            totals != null ? totals.getKcalIn() : 0,
+            totals != null ? totals.getKcalOut() : 0,
+            profile != null,
+            profile != null ? profile.getDailyWaterGoalMl() : null,
+            profile != null ? profile.getDailyCalorieGoal() : null
+        );
+    }
+
+    public record TodaySnapshot(LocalDate day, int waterMl, int kcalIn, int kcalOut,
+                                boolean hasProfile, Integer waterGoalMl, Integer calorieGoal) {
+
+        TodaySnapshot plus(int water, int in, int out) {
+            return new TodaySnapshot(day, waterMl + water, kcalIn + in, kcalOut + out,
+                hasProfile, waterGoalMl, calorieGoal);
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.healthmonitoring.water.controller;
 
+import com.example.healthmonitoring.common.CursorPage;
+import com.example.healthmonitoring.common.HistoryCursor;
+import com.example.healthmonitoring.common.NdjsonStreamer;
+import com.example.healthmonitoring.security.AuthUser;
 import com.example.healthmonitoring.water.entity.WaterLog;
 import com.example.healthmonitoring.water.repo.WaterLogRepository;
-import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.totals.dto.RangeTotals;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -21,21 +31,31 @@ import java.util.List;
 public class WaterController {
 
     private final WaterLogRepository waterRepo;
-    private final UserProfileRepository profileRepo;
+    private final DailyTotalsService totalsService;
+    private final TodayTotalsCache todayCache;
+    private final NdjsonStreamer ndjson;
 
     private String getUserId(Authentication auth) {
         return auth.getName();
     }
 
+    private long getUserKey(Authentication auth) {
+        return AuthUser.of(auth).key();
+    }
+
     /**
      * Add water log
      */
     @PostMapping
+    @Transactional
     public WaterLog addWater(@Valid @RequestBody AddWaterRequest request, Authentication auth) {
         WaterLog log = new WaterLog();
         log.setUserId(getUserId(auth));
+        log.setUserKey(getUserKey(auth));
         log.setAmount(request.getAmount());
-        return waterRepo.save(log);
+        WaterLog saved = waterRepo.save(log);
+        totalsService.waterLogged(saved);
+        return saved;
     }
 
     /**
@@ -43,25 +63,7 @@ public class WaterController {
      */
     @GetMapping("/today/total")
     public TodayWaterResponse getTodayTotal(Authentication auth) {
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.plusDays(1).atStartOfDay().minusNanos(1);
-
-        long totalMl = waterRepo.sumAmountByUserAndRange(getUserId(auth), start, end);
-        
-        // Get goal from profile
-        int goalMl = profileRepo.findByUserId(getUserId(auth))
-            .map(p -> p.getDailyWaterGoalMl() != null ? p.getDailyWaterGoalMl() : 2000)
-            .orElse(2000);
-
-        double percentage = (double) totalMl / goalMl * 100;
-
-        return new TodayWaterResponse(
-            Math.toIntExact(totalMl),
-            goalMl,
-            Math.min(percentage, 100.0),
-            totalMl >= goalMl
-        );
+        return TodayWaterResponse.of(todayCache.get(getUserId(auth)));
     }
 
     /**
@@ -76,9 +78,47 @@ public class WaterController {
         LocalDateTime start = from.atStartOfDay();
         LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
         
-        return waterRepo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(
-            getUserId(auth), start, end
+        return waterRepo.findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(
+            getUserKey(auth), start, end
+        );
+    }
+
+    /**
+     * Get water logs history one page at a time; pass back nextCursor for the next page
+     */
+    @GetMapping("/history/page")
+    public CursorPage<WaterLog> getHistoryPage(
+            Authentication auth,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
+        HistoryCursor after = HistoryCursor.decode(cursor, end);
+        int size = HistoryCursor.clampLimit(limit);
+
+        List<WaterLog> rows = waterRepo.findPage(
+            getUserKey(auth), start, end, after.createdAt(), after.id(), Limit.of(size + 1)
         );
+        return HistoryCursor.page(rows, size, WaterLog::getCreatedAt, WaterLog::getId);
+    }
+
+    /**
+     * Stream water logs history as NDJSON (one log per line, newest first)
+     */
+    @GetMapping(value = "/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamHistory(
+            Authentication auth,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        long userKey = getUserKey(auth);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
+
+        return ndjson.stream(() -> waterRepo.streamRange(userKey, start, end));
     }
 
     /**
@@ -86,6 +126,7 @@ public class WaterController {
      */
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
     public void deleteWater(@PathVariable Long id, Authentication auth) {
         WaterLog log = waterRepo.findById(id)
             .orElseThrow(() -> new RuntimeException("Water log not found"));
@@ -94,7 +135,8 @@ public class WaterController {
             throw new RuntimeException("Forbidden");
         }
         
-        waterRepo.deleteById(id);
+        waterRepo.delete(log);
+        totalsService.waterDeleted(log);
     }
 
     /**
@@ -106,13 +148,8 @@ public class WaterController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         
-        LocalDateTime start = from.atStartOfDay();
-        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
-        
-        long totalMl = waterRepo.sumAmountByUserAndRange(getUserId(auth), start, end);
-        List<WaterLog> logs = waterRepo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(
-            getUserId(auth), start, end
-        );
+        RangeTotals totals = totalsService.getRange(getUserId(auth), from, to);
+        long totalMl = totals.waterMl();
 
         int days = (int) java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
         int averagePerDay = days > 0 ? Math.toIntExact(totalMl / days) : 0;
@@ -120,7 +157,7 @@ public class WaterController {
         return new WaterStatsResponse(
             Math.toIntExact(totalMl),
             averagePerDay,
-            logs.size(),
+            Math.toIntExact(totals.waterLogs()),
             days
         );
     }
@@ -143,6 +180,22 @@ public class WaterController {
         private int goalMl;
         private double percentage;
         private boolean goalReached;
+
+        public static TodayWaterResponse of(TodayTotalsCache.TodaySnapshot today) {
+            long totalMl = today.waterMl();
+
+            // Goal comes from the profile, cached alongside today's totals
+            int goalMl = today.waterGoalMl() != null ? today.waterGoalMl() : 2000;
+
+            double percentage = (double) totalMl / goalMl * 100;
+
+            return new TodayWaterResponse(
+                Math.toIntExact(totalMl),
+                goalMl,
+                Math.min(percentage, 100.0),
+                totalMl >= goalMl
+            );
+        }
     }
 
     @Getter
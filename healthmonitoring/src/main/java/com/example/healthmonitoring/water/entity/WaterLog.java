@@ -1,14 +1,20 @@
 package com.example.healthmonitoring.water.entity;
 
+import com.example.healthmonitoring.common.UserDataVersionListener;
+import com.example.healthmonitoring.common.UserOwned;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
-@Entity @Table(name = "water_logs")
-public class WaterLog {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+@Entity @EntityListeners(UserDataVersionListener.class) @Table(name = "water_logs")
+public class WaterLog implements UserOwned {
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "water_logs_seq")
+    @SequenceGenerator(name = "water_logs_seq", sequenceName = "water_logs_id_seq", allocationSize = 50)
     private Long id;
 
     private String userId;      // lấy từ JWT
+    @Column(name = "user_key")
+    private Long userKey;       // users.user_key
     private int amount;         // ml
     private LocalDateTime createdAt;
 
@@ -21,6 +27,8 @@ public class WaterLog {
     public Long getId() { return id; }
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
+    @JsonIgnore public Long getUserKey() { return userKey; }
+    public void setUserKey(Long userKey) { this.userKey = userKey; }
     public int getAmount() { return amount; }
     public void setAmount(int amount) { this.amount = amount; }
     public LocalDateTime getCreatedAt() { return createdAt; }
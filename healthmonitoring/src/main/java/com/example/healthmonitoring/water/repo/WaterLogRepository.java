@@ -2,21 +2,53 @@ package com.example.healthmonitoring.water.repo;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.healthmonitoring.water.entity.WaterLog;
 
 public interface WaterLogRepository extends JpaRepository<WaterLog, Long> {
 
-    List<WaterLog> findByUserIdAndCreatedAtBetweenOrderByCreatedAtDesc(
-        String userId, LocalDateTime start, LocalDateTime end);
+    List<WaterLog> findByUserKeyAndCreatedAtBetweenOrderByCreatedAtDesc(
+        long userKey, LocalDateTime start, LocalDateTime end);
 
     @Query("""
            select coalesce(sum(w.amount), 0)
            from WaterLog w
-           where w.userId = ?1 and w.createdAt between ?2 and ?3
+           where w.userKey = ?1 and w.createdAt between ?2 and ?3
            """)
-    Long sumAmountByUserAndRange(String userId, LocalDateTime start, LocalDateTime end);
+    Long sumAmountByUserAndRange(long userKey, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Keyset page, newest first: rows strictly after the cursor ({@code ?4}, {@code ?5}).
+     * Callers ask for one row more than they return to detect the last page.
+     */
+    @Query("""
+           select w from WaterLog w
+           where w.userKey = ?1 and w.createdAt between ?2 and ?3
+             and (w.createdAt < ?4 or (w.createdAt = ?4 and w.id < ?5))
+           order by w.createdAt desc, w.id desc
+           """)
+    List<WaterLog> findPage(long userKey, LocalDateTime start, LocalDateTime end,
+                         LocalDateTime cursorAt, long cursorId, Limit limit);
+
+    /**
+     * Whole range as a forward-only cursor; must be consumed inside a transaction
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           select w from WaterLog w
+           where w.userKey = ?1 and w.createdAt between ?2 and ?3
+           order by w.createdAt desc, w.id desc
+           """)
+    Stream<WaterLog> streamRange(long userKey, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,190 @@
+-- Applied on every startup (spring.sql.init.mode=always), before Hibernate's ddl-auto
+-- creates missing tables. Every statement must be idempotent and must not assume an app
+-- table exists: on an empty database they are only created after this script, so changes
+-- to them are guarded by to_regclass and take effect from the next startup.
+
+-- Per-user daily totals maintained on log writes (see DailyTotalsService)
+CREATE TABLE IF NOT EXISTS daily_user_totals (
+    user_id character varying(255) NOT NULL,
+    day date NOT NULL,
+    water_ml integer DEFAULT 0 NOT NULL,
+    kcal_in integer DEFAULT 0 NOT NULL,
+    kcal_out integer DEFAULT 0 NOT NULL,
+    water_logs integer DEFAULT 0 NOT NULL,
+    meal_logs integer DEFAULT 0 NOT NULL,
+    activity_logs integer DEFAULT 0 NOT NULL,
+    CONSTRAINT daily_user_totals_pkey PRIMARY KEY (user_id, day)
+);
+
+-- Log ids come from pooled sequence generators (allocationSize = 50) so Hibernate can
+-- batch inserts; the increment must match before Hibernate validates the sequences.
+ALTER SEQUENCE IF EXISTS water_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS meal_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS activity_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS weight_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS reminders_id_seq INCREMENT BY 50;
+
+-- Reminder schedule as integers instead of "HH:mm" / "1,2,3" strings (see Reminder):
+-- minute_of_day 0-1439, days_mask bit 0 = Monday ... bit 6 = Sunday. Existing rows are
+-- converted once, then the string columns are dropped. Unparseable rows are disabled.
+DO '
+BEGIN
+    IF to_regclass(''reminders'') IS NOT NULL THEN
+        ALTER TABLE reminders ADD COLUMN IF NOT EXISTS minute_of_day smallint;
+        ALTER TABLE reminders ADD COLUMN IF NOT EXISTS days_mask smallint;
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = ''reminders'' AND column_name = ''days_of_week'') THEN
+            UPDATE reminders SET
+                minute_of_day = CASE WHEN "time" ~ ''^[0-9]{1,2}:[0-9]{2}$'' THEN
+                                    CASE WHEN split_part("time", '':'', 1)::int < 24 AND split_part("time", '':'', 2)::int < 60
+                                         THEN split_part("time", '':'', 1)::int * 60 + split_part("time", '':'', 2)::int
+                                         ELSE -1 END
+                                ELSE -1 END,
+                days_mask = CASE WHEN btrim(days_of_week) = '''' THEN 127
+                                 WHEN days_of_week ~ ''^ *[1-7] *(, *[1-7] *)*$''
+                                 THEN (SELECT bit_or(1 << (btrim(d)::int - 1))
+                                       FROM unnest(string_to_array(days_of_week, '','')) AS d)
+                                 ELSE 0 END
+            WHERE minute_of_day IS NULL OR days_mask IS NULL;
+            UPDATE reminders SET enabled = false, minute_of_day = 0
+            WHERE minute_of_day < 0 OR days_mask = 0;
+            ALTER TABLE reminders DROP COLUMN "time", DROP COLUMN days_of_week;
+        END IF;
+        ALTER TABLE reminders ALTER COLUMN minute_of_day SET NOT NULL;
+        ALTER TABLE reminders ALTER COLUMN days_mask SET NOT NULL;
+        -- Due-reminder claims (ReminderRepository.claimDue): equality on both columns, mask filtered per row
+        CREATE INDEX IF NOT EXISTS idx_reminders_enabled_minute ON reminders (enabled, minute_of_day);
+        -- Minute each reminder last fired at, so only one instance fires it
+        ALTER TABLE reminders ADD COLUMN IF NOT EXISTS last_fired_minute bigint DEFAULT 0 NOT NULL;
+    END IF;
+END';
+
+-- Log tables range-partitioned by month on created_at (see LogPartitionService). The
+-- existing table is kept as the DEFAULT partition without copying; the app moves each
+-- month out of it into its own partition and creates partitions ahead of time.
+DO '
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''water_logs'', ''meal_logs'', ''activity_logs''] LOOP
+        IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(t) AND relkind = ''r'') THEN
+            EXECUTE format(''ALTER TABLE %I RENAME TO %I'', t, t || ''_default'');
+            -- Replaced by the parent key (id, created_at) when attached; a partition cannot have both
+            EXECUTE format(''ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I'', t || ''_default'', t || ''_pkey'');
+            -- Part of the parent key, so NOT NULL on every partition (Hibernate creates it nullable)
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN created_at SET NOT NULL'', t || ''_default'');
+            EXECUTE format(''CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS, PRIMARY KEY (id, created_at))
+                            PARTITION BY RANGE (created_at)'', t, t || ''_default'');
+            EXECUTE format(''ALTER SEQUENCE IF EXISTS %I OWNED BY %I.id'', t || ''_id_seq'', t);
+            EXECUTE format(''ALTER TABLE %I ATTACH PARTITION %I DEFAULT'', t, t || ''_default'');
+        END IF;
+    END LOOP;
+END';
+-- Foreign keys (fk_water_user, fk_meal_user, fk_meal_food, ...) belong on the parent, so
+-- every partition inherits them, including the monthly ones (CREATE TABLE ... LIKE does
+-- not copy them). The rename above leaves them on the DEFAULT partition; move them up.
+-- Rows already moved to a monthly partition missed their ON DELETE CASCADE, so the ones
+-- it would have deleted are deleted before the key is validated.
+DO '
+DECLARE
+    t text;
+    fk record;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''water_logs'', ''meal_logs'', ''activity_logs''] LOOP
+        FOR fk IN SELECT c.conname, pg_get_constraintdef(c.oid) AS def, c.confdeltype,
+                         a.attname AS col, c.confrelid::regclass AS ref, ra.attname AS ref_col
+                  FROM pg_constraint c
+                  JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+                  JOIN pg_attribute ra ON ra.attrelid = c.confrelid AND ra.attnum = c.confkey[1]
+                  WHERE c.conrelid = to_regclass(t || ''_default'') AND c.contype = ''f''
+                    AND c.conparentid = 0 AND cardinality(c.conkey) = 1 LOOP
+            EXECUTE format(''ALTER TABLE %I DROP CONSTRAINT %I'', t || ''_default'', fk.conname);
+            IF fk.confdeltype = ''c'' THEN
+                EXECUTE format(''DELETE FROM %I l WHERE l.%I IS NOT NULL
+                                AND NOT EXISTS (SELECT 1 FROM %s r WHERE r.%I = l.%I)'',
+                               t, fk.col, fk.ref, fk.ref_col, fk.col);
+            END IF;
+            EXECUTE format(''ALTER TABLE %I ADD CONSTRAINT %I %s'', t, fk.conname, fk.def);
+        END LOOP;
+    END LOOP;
+END';
+-- Numeric user key (users.user_key) next to the email on the user-owned tables; the
+-- per-user indexes are built on it instead of the 255-char email. Existing rows are
+-- filled in once from users; rows whose email matches no user are left NULL.
+DO '
+DECLARE
+    t text;
+BEGIN
+    IF to_regclass(''users'') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS user_key bigint GENERATED BY DEFAULT AS IDENTITY;
+        CREATE UNIQUE INDEX IF NOT EXISTS users_user_key_key ON users (user_key);
+    END IF;
+    FOREACH t IN ARRAY ARRAY[''water_logs'', ''meal_logs'', ''activity_logs'', ''weight_logs'', ''reminders'', ''user_profiles''] LOOP
+        CONTINUE WHEN to_regclass(t) IS NULL;
+        IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_name = t AND column_name = ''user_key'') THEN
+            EXECUTE format(''ALTER TABLE %I ADD COLUMN user_key bigint'', t);
+            EXECUTE format(''UPDATE %I l SET user_key = u.user_key FROM users u WHERE u.email = l.user_id'', t);
+        END IF;
+        -- Per-user range reads; on the log tables created on every partition, including future ones
+        IF t = ''reminders'' THEN
+            CREATE INDEX IF NOT EXISTS idx_reminders_user_key ON reminders (user_key);
+        ELSIF t <> ''user_profiles'' THEN
+            EXECUTE format(''CREATE INDEX IF NOT EXISTS %I ON %I (user_key, created_at)'', ''idx_'' || t || ''_user_key_created'', t);
+        END IF;
+    END LOOP;
+END';
+-- Email-keyed indexes they replace (nothing filters these tables by email any more)
+DROP INDEX IF EXISTS idx_water_logs_user_created;
+DROP INDEX IF EXISTS idx_meal_logs_user_created;
+DROP INDEX IF EXISTS idx_activity_logs_user_created;
+DROP INDEX IF EXISTS idx_water_user_created;
+DROP INDEX IF EXISTS idx_meal_user_created;
+DROP INDEX IF EXISTS idx_activity_user_created;
+DROP INDEX IF EXISTS idx_weight_user_created;
+DROP INDEX IF EXISTS idx_reminder_user;
+
+-- Raised to revoke a user's tokens (see TokenVersions); tokens carry it as the "tv" claim
+DO '
+BEGIN
+    IF to_regclass(''users'') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version integer DEFAULT 0 NOT NULL;
+    END IF;
+END';
+-- Per-user data version behind ETags (see UserDataVersions); bumped in every write
+-- transaction, and recently bumped users are reloaded by every instance
+DO '
+BEGIN
+    IF to_regclass(''users'') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version bigint DEFAULT 0 NOT NULL;
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version_at timestamp(6) with time zone;
+        CREATE INDEX IF NOT EXISTS idx_users_data_version_at ON users (data_version_at);
+    END IF;
+END';
+
+-- Idempotency keys for /api/v1/sync/batch (see SyncService)
+CREATE TABLE IF NOT EXISTS sync_receipts (
+    user_id character varying(255) NOT NULL,
+    idem_key character varying(64) NOT NULL,
+    kind character varying(16) NOT NULL,
+    entity_id bigint NOT NULL,
+    created_at timestamp(6) without time zone NOT NULL,
+    CONSTRAINT sync_receipts_pkey PRIMARY KEY (user_id, idem_key)
+);
+
+-- Food name search (FoodSearchService): trigram + prefix indexes, diacritic-insensitive variants
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+-- unaccent() is only STABLE; an IMMUTABLE wrapper with a fixed dictionary can be indexed
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS 'SELECT public.unaccent(''public.unaccent''::regdictionary, $1)';
+DO '
+BEGIN
+    IF to_regclass(''foods'') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_foods_name_trgm ON foods USING gin (lower(name) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_foods_name_unaccent_trgm ON foods USING gin (f_unaccent(lower(name)) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_foods_name_prefix ON foods USING btree (lower(name) text_pattern_ops);
+        CREATE INDEX IF NOT EXISTS idx_foods_name_unaccent_prefix ON foods USING btree (f_unaccent(lower(name)) text_pattern_ops);
+    END IF;
+END';
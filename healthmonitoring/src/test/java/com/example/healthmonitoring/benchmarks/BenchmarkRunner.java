@@ -0,0 +1,101 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH suites, writes the raw JMH JSON next to a flat summary, and either
+ * records the summary as the baseline or fails when a score regressed past the
+ * threshold against it. See the "benchmarks" profile in pom.xml.
+ */
+public class BenchmarkRunner {
+
+    private static final String PACKAGE = BenchmarkRunner.class.getPackageName() + ".";
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("bench.include", ".*");
+        Path output = Path.of(System.getProperty("bench.output", "target/benchmarks"));
+        Path baselineFile = Path.of(System.getProperty("bench.baseline", "benchmarks/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("bench.threshold", "0.10"));
+        boolean updateBaseline = Boolean.getBoolean("bench.update-baseline");
+
+        Files.createDirectories(output);
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(output.resolve("jmh-result.json").toString())
+            .build()).run();
+
+        Map<String, Score> current = new TreeMap<>();
+        for (RunResult r : results) {
+            var primary = r.getPrimaryResult();
+            current.put(key(r), new Score(primary.getScore(), primary.getScoreError(), primary.getScoreUnit(),
+                r.getParams().getMode().shortLabel()));
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(output.resolve("summary.json").toFile(), current);
+
+        if (updateBaseline) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            mapper.writeValue(baselineFile.toFile(), current);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; run with -Dbench.update-baseline=true to record one");
+            return;
+        }
+
+        Map<String, Score> baseline = read(mapper, baselineFile);
+        int regressions = 0;
+        System.out.printf("%n%-70s %14s %14s %9s%n", "Benchmark", "baseline", "current", "change");
+        for (var entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score now = entry.getValue();
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            // Throughput: higher is better; time modes: lower is better
+            double change = (now.score() - before.score()) / before.score();
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) regressions++;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.score(), now.score(),
+                change * 100, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static String key(RunResult r) {
+        var params = r.getParams();
+        StringBuilder key = new StringBuilder(params.getBenchmark().substring(PACKAGE.length()));
+        for (String name : params.getParamsKeys()) {
+            key.append(':').append(name).append('=').append(params.getParam(name));
+        }
+        return key.toString();
+    }
+
+    private static Map<String, Score> read(ObjectMapper mapper, Path file) throws IOException {
+        return mapper.readValue(file.toFile(),
+            mapper.getTypeFactory().constructMapType(TreeMap.class, String.class, Score.class));
+    }
+
+    public record Score(double score, double error, String unit, String mode) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.HealthmonitoringApplication;
+import com.example.healthmonitoring.water.entity.WaterLog;
+import com.example.healthmonitoring.water.repo.WaterLogRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Multi-row insert throughput for log tables, against the datasource in application.properties.
+ *
+ * Compares one INSERT ... RETURNING id round trip per row (what IDENTITY ids forced on
+ * Hibernate) with saveAll on pooled sequence ids and JDBC batching. Rows are written
+ * under a throwaway user id and deleted afterwards.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.example.healthmonitoring.benchmarks.BulkInsertBenchmark -Dexec.args="5000 5"
+ */
+public class BulkInsertBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(HealthmonitoringApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                     "--logging.level.com.example.healthmonitoring=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN",
+                     "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")) {
+
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            WaterLogRepository repo = ctx.getBean(WaterLogRepository.class);
+            TransactionTemplate tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+            String userId = "bench-" + UUID.randomUUID();
+
+            try {
+                // Warm up connection pool, statement cache and JIT
+                perRow(tx, jdbc, userId, Math.min(rows, 500));
+                batched(tx, repo, userId, Math.min(rows, 500));
+
+                long perRowBest = Long.MAX_VALUE;
+                long batchedBest = Long.MAX_VALUE;
+                for (int r = 0; r < rounds; r++) {
+                    perRowBest = Math.min(perRowBest, perRow(tx, jdbc, userId, rows));
+                    batchedBest = Math.min(batchedBest, batched(tx, repo, userId, rows));
+                }
+
+                report("per-row insert (IDENTITY)", rows, perRowBest);
+                report("saveAll (pooled sequence, batched)", rows, batchedBest);
+                System.out.printf("speedup: %.1fx%n", (double) perRowBest / batchedBest);
+            } finally {
+                jdbc.update("delete from water_logs where user_id = ?", userId);
+            }
+        }
+    }
+
+    private static long perRow(TransactionTemplate tx, JdbcTemplate jdbc, String userId, int rows) {
+        long start = System.nanoTime();
+        tx.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < rows; i++) {
+                jdbc.queryForObject(
+                    "insert into water_logs (user_id, amount, created_at) values (?, ?, ?) returning id",
+                    Long.class, userId, 250, now);
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    private static long batched(TransactionTemplate tx, WaterLogRepository repo, String userId, int rows) {
+        List<WaterLog> logs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            WaterLog log = new WaterLog();
+            log.setUserId(userId);
+            log.setAmount(250);
+            logs.add(log);
+        }
+        long start = System.nanoTime();
+        tx.executeWithoutResult(status -> repo.saveAll(logs));
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int rows, long nanos) {
+        System.out.printf("%-38s %7d rows  %8.1f ms  %10.0f rows/s%n",
+            name, rows, nanos / 1e6, rows / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.statistics.DailyRollupService;
+import com.example.healthmonitoring.statistics.StatisticsController;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A year of /statistics/daily in each representation: array-of-objects JSON,
+ * parallel-array JSON (columns+json) and parallel-array CBOR, raw and gzipped.
+ * Encoded sizes are printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChartEncodingBenchmark {
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private List<StatisticsController.DailyStats> rows;
+    private StatisticsController.DailyColumns columns;
+
+    @Setup
+    public void setup() throws IOException {
+        json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .timeZone(TimeZone.getTimeZone("Asia/Ho_Chi_Minh"))
+            .build();
+        cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        List<DailyRollupService.DayTotals> days = new ArrayList<>(365);
+        for (int i = 0; i < 365; i++) {
+            days.add(new DailyRollupService.DayTotals(from.plusDays(i), 1800 + i * 37 % 700, 1600 + i * 53 % 500, 300 + i * 29 % 200));
+        }
+        rows = new ArrayList<>(days.size());
+        for (DailyRollupService.DayTotals d : days) {
+            rows.add(StatisticsController.DailyStats.builder()
+                .date(d.date()).waterMl(d.waterMl()).caloriesIn(d.caloriesIn())
+                .caloriesOut(d.caloriesOut()).netCalories(d.netCalories()).build());
+        }
+        columns = StatisticsController.DailyColumns.of(days);
+
+        System.out.printf("%nbytes (raw / gzip): objects json %d / %d, columns json %d / %d, columns cbor %d / %d%n",
+            objectsJson().length, objectsJsonGzip().length,
+            columnsJson().length, columnsJsonGzip().length,
+            columnsCbor().length, gzip(columnsCbor()).length);
+    }
+
+    @Benchmark
+    public byte[] objectsJson() throws IOException {
+        return json.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] columnsJson() throws IOException {
+        return json.writeValueAsBytes(columns);
+    }
+
+    @Benchmark
+    public byte[] columnsCbor() throws IOException {
+        return cbor.writeValueAsBytes(columns);
+    }
+
+    @Benchmark
+    public byte[] objectsJsonGzip() throws IOException {
+        return gzip(objectsJson());
+    }
+
+    @Benchmark
+    public byte[] columnsJsonGzip() throws IOException {
+        return gzip(columnsJson());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
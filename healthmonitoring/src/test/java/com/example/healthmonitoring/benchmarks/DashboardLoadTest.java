@@ -0,0 +1,212 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.HealthmonitoringApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test of GET /api/v1/dashboard/today, once with Tomcat's platform
+ * worker pool and once with virtual threads; prints throughput and latency
+ * percentiles for both.
+ *
+ * Each mode boots the app in-process on a random port. By default it uses in-memory
+ * H2 with the today cache shrunk to one entry, so nearly every request reaches the
+ * database; pass --jdbc-url (and --jdbc-user / --jdbc-password) to run against Postgres.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *      -Dexec.mainClass=com.example.healthmonitoring.benchmarks.DashboardLoadTest
+ *      -Dexec.args="--clients=1000 --duration=30s --users=200"
+ */
+public class DashboardLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "1000"));
+        int users = Integer.parseInt(opts.getOrDefault("users", "200"));
+        Duration duration = Duration.parse("PT" + opts.getOrDefault("duration", "30s").toUpperCase());
+        Duration warmup = Duration.parse("PT" + opts.getOrDefault("warmup", "10s").toUpperCase());
+
+        Result platform = run(false, opts, clients, users, warmup, duration);
+        Result virtual = run(true, opts, clients, users, warmup, duration);
+
+        System.out.printf("%n%d clients, %d users, %s per mode%n", clients, users, duration);
+        System.out.printf("%-10s %10s %8s %10s %10s %10s %10s%n", "mode", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        platform.print("platform");
+        virtual.print("virtual");
+    }
+
+    private static Result run(boolean virtualThreads, Map<String, String> opts, int clients, int users,
+                              Duration warmup, Duration duration) throws Exception {
+        List<String> props = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.healthmonitoring=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            // Every client comes from one IP; the limiter would cap what is measured
+            "--app.rate-limit.enabled=false",
+            // Users are registered all at once: cheap hashes, and room for all of them in the
+            // hashing queue, so none are refused with 503
+            "--app.security.bcrypt-strength=4",
+            "--app.security.hashing.queue-capacity=" + Math.max(64, users),
+            "--app.today-cache.max-size=" + opts.getOrDefault("today-cache-size", "1")));
+        if (opts.containsKey("jdbc-url")) {
+            props.add("--spring.datasource.url=" + opts.get("jdbc-url"));
+            props.add("--spring.datasource.username=" + opts.getOrDefault("jdbc-user", "postgres"));
+            props.add("--spring.datasource.password=" + opts.getOrDefault("jdbc-password", ""));
+        } else {
+            props.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:load" + virtualThreads
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE,KEY",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.defer-datasource-initialization=true",
+                "--spring.sql.init.schema-locations=optional:classpath:benchmarks/none.sql",
+                "--spring.sql.init.data-locations=classpath:benchmarks/seed.sql"));
+        }
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(HealthmonitoringApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(props.toArray(String[]::new));
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            HttpClient http = HttpClient.newBuilder().executor(workers).connectTimeout(Duration.ofSeconds(10)).build();
+            String[] tokens = register(http, workers, base, users, virtualThreads);
+
+            drive(http, workers, base, tokens, clients, warmup);
+            return drive(http, workers, base, tokens, clients, duration);
+        }
+    }
+
+    private static String[] register(HttpClient http, ExecutorService workers, String base, int users, boolean mode)
+            throws Exception {
+        String run = Long.toString(System.nanoTime(), 36);
+        List<Future<String>> futures = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            int n = i;
+            futures.add(workers.submit(() -> {
+                String body = JSON.writeValueAsString(Map.of(
+                    "email", "load-" + run + "-" + mode + "-" + n + "@example.com",
+                    "password", "secret123",
+                    "fullName", "Load " + n));
+                HttpResponse<String> res = http.send(HttpRequest.newBuilder(URI.create(base + "/api/v1/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+                if (res.statusCode() != 201) {
+                    throw new IllegalStateException("register failed: " + res.statusCode() + " " + res.body());
+                }
+                return JSON.readTree(res.body()).get("token").asText();
+            }));
+        }
+        String[] tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = futures.get(i).get();
+        }
+        return tokens;
+    }
+
+    private static Result drive(HttpClient http, ExecutorService workers, String base, String[] tokens,
+                                int clients, Duration duration) throws Exception {
+        URI uri = URI.create(base + "/api/v1/dashboard/today");
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+
+        for (int c = 0; c < clients; c++) {
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int n = 0;
+                long errors = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest req = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer " + tokens[random.nextInt(tokens.length)])
+                        .timeout(Duration.ofSeconds(30))
+                        .GET().build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+                        if (res.statusCode() != 200) errors++;
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                    latencies[n++] = System.nanoTime() - start;
+                }
+                long[] out = Arrays.copyOf(latencies, n + 1);
+                out[n] = errors;   // last slot carries the error count
+                return out;
+            }));
+        }
+
+        List<long[]> perClient = new ArrayList<>(clients);
+        long errors = 0;
+        int total = 0;
+        for (Future<long[]> f : futures) {
+            long[] r = f.get();
+            errors += r[r.length - 1];
+            total += r.length - 1;
+            perClient.add(r);
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (long[] r : perClient) {
+            System.arraycopy(r, 0, all, pos, r.length - 1);
+            pos += r.length - 1;
+        }
+        Arrays.sort(all);
+        return new Result(all, errors, duration);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (a.startsWith("--") && a.contains("=")) {
+                opts.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+            }
+        }
+        return opts;
+    }
+
+    private record Result(long[] sortedNanos, long errors, Duration duration) {
+
+        double percentileMs(double p) {
+            if (sortedNanos.length == 0) return 0;
+            int i = (int) Math.ceil(p * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, Math.min(i, sortedNanos.length - 1))] / 1e6;
+        }
+
+        void print(String mode) {
+            System.out.printf("%-10s %10.0f %8d %10.2f %10.2f %10.2f %10.2f%n", mode,
+                sortedNanos.length / (duration.toNanos() / 1e9), errors,
+                percentileMs(0.50), percentileMs(0.99), percentileMs(0.999), percentileMs(1.0));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.dashboard.DashboardController;
+import com.example.healthmonitoring.statistics.StatisticsController;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of the dashboard and chart responses, with the mapper configured
+ * like application.properties (ISO dates, non-null inclusion).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardSerializationBenchmark {
+
+    private ObjectMapper mapper;
+    private DashboardController.TodayDashboard today;
+    private DashboardController.WeekOverview week;
+    private List<StatisticsController.DailyStats> year;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .timeZone(TimeZone.getTimeZone("Asia/Ho_Chi_Minh"))
+            .build();
+
+        LocalDate date = LocalDate.of(2025, 1, 31);
+        today = DashboardController.TodayDashboard.builder()
+            .date(date)
+            .water(DashboardController.WaterData.builder()
+                .current(1250).goal(2300).percentage(54.3).remaining(1050).build())
+            .calories(DashboardController.CalorieData.builder()
+                .intake(1420).burned(380).net(1040).goal(1900).remaining(480).percentage(74.7).build())
+            .hasProfile(true)
+            .build();
+        week = DashboardController.WeekOverview.builder()
+            .weekStart(date.minusDays(6)).weekEnd(date)
+            .avgWaterPerDay(2010).avgCaloriesInPerDay(1830).avgCaloriesOutPerDay(410)
+            .totalCaloriesIn(12810).totalCaloriesOut(2870)
+            .build();
+
+        year = new ArrayList<>(365);
+        for (int i = 0; i < 365; i++) {
+            year.add(StatisticsController.DailyStats.builder()
+                .date(date.minusDays(i))
+                .waterMl(1800 + i % 700)
+                .caloriesIn(1600 + i % 500)
+                .caloriesOut(300 + i % 200)
+                .netCalories(1300 + i % 300)
+                .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] todayDashboard() throws Exception {
+        return mapper.writeValueAsBytes(today);
+    }
+
+    @Benchmark
+    public byte[] weekOverview() throws Exception {
+        return mapper.writeValueAsBytes(week);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] dailyStatsYear() throws Exception {
+        return mapper.writeValueAsBytes(year);
+    }
+}
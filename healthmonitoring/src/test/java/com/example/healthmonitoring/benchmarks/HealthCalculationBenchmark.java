@@ -0,0 +1,71 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.profile.service.HealthCalculationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile metric formulas, including the switch-on-string paths for
+ * gender, activity level and goal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HealthCalculationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Activity {
+        @Param({"SEDENTARY", "moderately_active", "EXTRA_ACTIVE", "unknown"})
+        public String level;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Gender {
+        @Param({"MALE", "female", "OTHER"})
+        public String value;
+    }
+
+    private final HealthCalculationService calc = new HealthCalculationService();
+    private final LocalDate dateOfBirth = LocalDate.of(1990, 6, 15);
+    private double weightKg = 72.5;
+    private double heightCm = 175;
+
+    @Benchmark
+    public double bmi() {
+        return calc.calculateBMI(weightKg, heightCm);
+    }
+
+    @Benchmark
+    public double bmr(Gender gender) {
+        return calc.calculateBMR(weightKg, heightCm, 35, gender.value);
+    }
+
+    @Benchmark
+    public double tdee(Activity activity) {
+        return calc.calculateTDEE(1650, activity.level);
+    }
+
+    @Benchmark
+    public int waterGoal(Activity activity) {
+        return calc.calculateDailyWaterGoal(weightKg, activity.level);
+    }
+
+    /**
+     * Everything ProfileService.saveProfile derives, in the same order
+     */
+    @Benchmark
+    public void allMetrics(Activity activity, Blackhole bh) {
+        int age = calc.calculateAge(dateOfBirth);
+        double bmr = calc.calculateBMR(weightKg, heightCm, age, "FEMALE");
+        double tdee = calc.calculateTDEE(bmr, activity.level);
+        bh.consume(calc.calculateBMI(weightKg, heightCm));
+        bh.consume(calc.calculateDailyCalorieGoal(tdee, "LOSE_WEIGHT"));
+        bh.consume(calc.calculateDailyWaterGoal(weightKg, activity.level));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. {@code subjectCached} is the steady state for a
+ * client reusing its token; {@code subjectUncached} pays for signature check and
+ * JSON parsing every time (cache size 1, alternating tokens).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtBenchmark {
+
+    private static final String SECRET = "LVhB5m3O0i1gB2a3zD0e9N1yK0k7p5n3k6Q2z1J7x9L2y4G6m8C0t2F4h6J8M0Q2";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        cached = new JwtService(SECRET, 72, 10_000);
+        uncached = new JwtService(SECRET, 72, 1);
+        token = cached.generate("bench@example.com", Map.of());
+        tokens = new String[]{
+            uncached.generate("a@example.com", Map.of()),
+            uncached.generate("b@example.com", Map.of())
+        };
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generate("bench@example.com", Map.of());
+    }
+
+    @Benchmark
+    public String subjectCached() {
+        return cached.subject(token);
+    }
+
+    @Benchmark
+    public String subjectUncached() {
+        next ^= 1;
+        return uncached.subject(tokens[next]);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.profile.service.HealthCalculationService;
+import com.example.healthmonitoring.profile.service.HealthInsightsCache;
+import com.example.healthmonitoring.profile.service.ProfileService;
+import com.example.healthmonitoring.totals.repo.DailyUserTotalRepository;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProfileService.saveProfile with the repository stubbed out, so the score is the
+ * service's own work: metric recomputation plus the cache invalidations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfileSaveBenchmark {
+
+    private ProfileService service;
+    private UserProfile profile;
+
+    @Setup
+    public void setup() {
+        UserProfileRepository profiles = Stubs.repository(UserProfileRepository.class, (method, args) -> switch (method) {
+            case "save" -> args[0];
+            case "findByUserId", "findById" -> Optional.empty();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        DailyUserTotalRepository totals = Stubs.repository(DailyUserTotalRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method);
+        });
+        TodayTotalsCache todayCache = new TodayTotalsCache(totals, profiles, 10_000, Duration.ofMinutes(10), Duration.ofSeconds(2));
+        HealthInsightsCache insightsCache = new HealthInsightsCache(10_000, Duration.ofHours(1));
+        service = new ProfileService(profiles, new HealthCalculationService(), todayCache, insightsCache);
+
+        profile = UserProfile.builder()
+            .userId("bench@example.com")
+            .gender("FEMALE")
+            .dateOfBirth(LocalDate.of(1992, 3, 4))
+            .heightCm(165)
+            .currentWeightKg(61.2)
+            .targetWeightKg(58.0)
+            .activityLevel("LIGHTLY_ACTIVE")
+            .goal("LOSE_WEIGHT")
+            .build();
+    }
+
+    @Benchmark
+    public UserProfile saveProfile() {
+        return service.saveProfile(profile);
+    }
+}
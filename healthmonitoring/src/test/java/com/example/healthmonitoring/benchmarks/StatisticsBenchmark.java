@@ -0,0 +1,82 @@
+package com.example.healthmonitoring.benchmarks;
+
+import com.example.healthmonitoring.HealthmonitoringApplication;
+import com.example.healthmonitoring.statistics.StatisticsController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatisticsController daily/weekly/summary aggregation through the real JPA stack,
+ * against in-memory H2 in PostgreSQL mode seeded with a year of daily totals
+ * (src/test/resources/benchmarks/seed.sql).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    @Param({"7", "30", "365"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+    private StatisticsController controller;
+    private Authentication auth;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(HealthmonitoringApplication.class)
+            .web(WebApplicationType.SERVLET)
+            .run("--server.port=0",
+                 "--spring.main.banner-mode=off",
+                 "--logging.level.root=WARN",
+                 "--logging.level.com.example.healthmonitoring=WARN",
+                 "--logging.level.org.hibernate.SQL=WARN",
+                 "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                 "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE,KEY",
+                 "--spring.datasource.driver-class-name=org.h2.Driver",
+                 "--spring.datasource.username=sa",
+                 "--spring.datasource.password=",
+                 "--spring.jpa.hibernate.ddl-auto=create",
+                 "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                 "--spring.jpa.defer-datasource-initialization=true",
+                 "--spring.sql.init.schema-locations=optional:classpath:benchmarks/none.sql",
+                 "--spring.sql.init.data-locations=classpath:benchmarks/seed.sql");
+        controller = context.getBean(StatisticsController.class);
+        auth = new UsernamePasswordAuthenticationToken("bench@example.com", null, List.of());
+        to = LocalDate.now();
+        from = to.minusDays(days - 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StatisticsController.DailyStats> daily() {
+        return controller.getDailyStats(auth, from, to);
+    }
+
+    @Benchmark
+    public StatisticsController.SummaryStats summary() {
+        return controller.getSummary(auth, from, to);
+    }
+
+    @Benchmark
+    public StatisticsController.WeeklyStats weekly() {
+        return controller.getWeeklyStats(auth);
+    }
+}
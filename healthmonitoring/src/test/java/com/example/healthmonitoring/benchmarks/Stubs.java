@@ -0,0 +1,27 @@
+package com.example.healthmonitoring.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+
+/**
+ * Interface stubs for benchmarks that should not touch a database
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * @param handler receives the method name and arguments; Object methods are handled here
+     */
+    static <T> T repository(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) ->
+            switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> handler.apply(method.getName(), args);
+            });
+        return type.cast(proxy);
+    }
+}
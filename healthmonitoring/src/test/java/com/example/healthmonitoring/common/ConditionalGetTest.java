@@ -0,0 +1,214 @@
+package com.example.healthmonitoring.common;
+
+import com.example.healthmonitoring.water.entity.WaterLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    private static final String POLLED = "/api/v1/reminders";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private UserDataVersions versions;
+
+    private String email;
+    private String token;
+    private Long foodId;
+
+    @BeforeEach
+    void register() throws Exception {
+        email = "etag-" + UUID.randomUUID() + "@test.local";
+        MvcResult res = mvc.perform(post("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(Map.of(
+                    "email", email, "password", "secret123", "fullName", "ETag Test"))))
+            .andExpect(status().isCreated())
+            .andReturn();
+        token = json.readTree(res.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbc.update("delete from users where email = ?", email);
+        if (foodId != null) {
+            // Without the sql.sql foreign keys (schema created by Hibernate) nothing cascades
+            jdbc.update("delete from meal_logs where food_id = ?", foodId);
+            jdbc.update("delete from foods where id = ?", foodId);
+        }
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        String etag = etag();
+
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+        // Weak comparison: the strong form of the same tag matches too
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+            .andExpect(status().isNotModified());
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, "W/\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void browserClientsCanReadTheETag() throws Exception {
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.ORIGIN, "http://localhost:3000"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("ETag")))
+            .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString("Retry-After")));
+    }
+
+    @Test
+    void writeToEachUserOwnedEntityChangesTheETag() throws Exception {
+        // UserProfile, inserted then updated
+        assertWriteChangesETag(post("/api/v1/profile"), Map.of(
+            "gender", "MALE", "dateOfBirth", "1990-05-01", "heightCm", 175, "currentWeightKg", 75,
+            "activityLevel", "MODERATELY_ACTIVE", "goal", "MAINTAIN"));
+        assertWriteChangesETag(patch("/api/v1/profile/weight"), Map.of("weightKg", 74));
+        // WeightLog
+        assertWriteChangesETag(post("/api/v1/bmi/weight"), Map.of("weightKg", 73));
+        // WaterLog
+        assertWriteChangesETag(post("/api/v1/water"), Map.of("amount", 250));
+        // MealLog
+        foodId = jdbc.queryForObject(
+            "insert into foods (name, serving, kcal_per_serving) values (?, '100 g', 200) returning id",
+            Long.class, "ETag test food " + email);
+        assertWriteChangesETag(post("/api/v1/meal"), Map.of("foodId", foodId, "servings", 1));
+        // ActivityLog
+        assertWriteChangesETag(post("/api/v1/activity"), Map.of(
+            "name", "Walking", "met", 3.5, "minutes", 30, "weightKg", 73));
+        // Reminder, inserted then deleted
+        String created = assertWriteChangesETag(post("/api/v1/reminders"), Map.of("time", "07:20"));
+        long reminderId = json.readTree(created).path("id").asLong();
+        assertWriteChangesETag(delete("/api/v1/reminders/" + reminderId), null);
+    }
+
+    @Test
+    void versionMovesOnCommitOnly() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        String before = etag();
+
+        tx.executeWithoutResult(status -> {
+            em.persist(water(250));
+            em.flush();
+            status.setRollbackOnly();
+        });
+        assertEquals(before, versions.etag(email, null));
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isNotModified());
+
+        tx.executeWithoutResult(status -> {
+            em.persist(water(250));
+            em.flush();
+            // Row is written, but other requests can't see it until the commit
+            assertEquals(before, versions.etag(email, null));
+        });
+        assertNotEquals(before, versions.etag(email, null));
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void writeOnAnotherInstanceShowsUpOnRefresh() throws Exception {
+        String before = etag();
+
+        // What another instance's write transaction leaves behind
+        jdbc.update("update users set data_version = data_version + 1, data_version_at = clock_timestamp() where email = ?",
+            email);
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isNotModified());
+
+        versions.refresh();
+        mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isOk());
+    }
+
+    /**
+     * Perform the write, then check the polled GET no longer matches the tag from
+     * before it; returns the write's response body
+     */
+    private String assertWriteChangesETag(MockHttpServletRequestBuilder write, Object body) throws Exception {
+        String before = etag();
+        if (body != null) {
+            write.contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(body));
+        }
+        MvcResult res = mvc.perform(authed(write)).andReturn();
+        int code = res.getResponse().getStatus();
+        String written = res.getResponse().getContentAsString();
+        assertEquals(2, code / 100, () -> "write failed: " + code + " " + written);
+
+        MvcResult after = mvc.perform(authed(get(POLLED)).header(HttpHeaders.IF_NONE_MATCH, before))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNotEquals(before, after.getResponse().getHeader(HttpHeaders.ETAG));
+        return written;
+    }
+
+    private String etag() throws Exception {
+        String etag = mvc.perform(authed(get(POLLED)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private MockHttpServletRequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private WaterLog water(int amount) {
+        WaterLog log = new WaterLog();
+        log.setUserId(email);
+        log.setAmount(amount);
+        return log;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.healthmonitoring.partition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class LogPartitionServiceTest {
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private LogPartitionService partitions;
+
+    @Test
+    void deletingUserCascadesToMonthlyPartitions() {
+        String email = "partition-" + UUID.randomUUID() + "@test.local";
+        jdbc.update("insert into users (email, password, full_name) values (?, 'x', 'Partition Test')", email);
+
+        // This month's partition exists ahead of time; last month's row lands in DEFAULT
+        // until maintenance moves it into its own partition
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastMonth = now.minusMonths(1).withDayOfMonth(1);
+        long current = insertWater(email, now);
+        long moved = insertWater(email, lastMonth);
+        partitions.maintain();
+
+        assertEquals("water_logs" + MONTH_SUFFIX.format(YearMonth.from(now)), partitionOf(current));
+        assertEquals("water_logs" + MONTH_SUFFIX.format(YearMonth.from(lastMonth)), partitionOf(moved));
+
+        jdbc.update("delete from users where email = ?", email);
+
+        assertEquals(0, jdbc.queryForObject(
+            "select count(*) from water_logs where user_id = ?", Integer.class, email));
+    }
+
+    private long insertWater(String email, LocalDateTime createdAt) {
+        return jdbc.queryForObject(
+            "insert into water_logs (user_id, amount, created_at) values (?, 250, ?) returning id",
+            Long.class, email, Timestamp.valueOf(createdAt));
+    }
+
+    private String partitionOf(long id) {
+        return jdbc.queryForObject(
+            "select tableoid::regclass::text from water_logs where id = ?", String.class, id);
+    }
+}
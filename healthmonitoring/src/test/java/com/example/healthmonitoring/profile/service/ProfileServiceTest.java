@@ -0,0 +1,132 @@
+package com.example.healthmonitoring.profile.service;
+
+import com.example.healthmonitoring.profile.entity.UserProfile;
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.profile.service.ProfileService.HealthInsights;
+import com.example.healthmonitoring.totals.service.TodayTotalsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileServiceTest {
+
+    private static final String USER = "a@test.local";
+
+    private final UserProfileRepository profileRepo = mock(UserProfileRepository.class);
+    private final HealthCalculationService healthCalc = new HealthCalculationService();
+    private final ProfileService service = new ProfileService(profileRepo, healthCalc,
+        mock(TodayTotalsCache.class), new HealthInsightsCache(100, Duration.ofHours(1)));
+
+    private final LocalDate today = LocalDate.now();
+    // 30 today, 29 six months ago
+    private final LocalDate dateOfBirth = today.minusYears(30).minusMonths(3);
+
+    @BeforeEach
+    void saveReturnsArgument() {
+        when(profileRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void weightChangeRecomputesWeightDependentMetrics() {
+        UserProfile profile = stored(today.minusDays(1));
+
+        UserProfile saved = service.updateWeight(profile, 80);
+
+        assertEquals(healthCalc.calculateBMI(80, 175), saved.getBmi());
+        double bmr = healthCalc.calculateBMR(80, 175, 30, "MALE");
+        assertEquals(bmr, saved.getBmr());
+        double tdee = healthCalc.calculateTDEE(bmr, "MODERATELY_ACTIVE");
+        assertEquals(tdee, saved.getTdee());
+        assertEquals(healthCalc.calculateDailyCalorieGoal(tdee, "LOSE_WEIGHT"), saved.getDailyCalorieGoal());
+        assertEquals(healthCalc.calculateDailyWaterGoal(80, "MODERATELY_ACTIVE"), saved.getDailyWaterGoalMl());
+    }
+
+    @Test
+    void unchangedWeightWritesNothing() {
+        UserProfile profile = stored(today.minusDays(1));
+
+        assertSame(profile, service.updateWeight(profile, 75));
+        verify(profileRepo, never()).save(any());
+    }
+
+    @Test
+    void birthdaySinceLastSaveRecomputesOnlyAgeDependentMetrics() {
+        UserProfile previous = stored(today.minusMonths(6));
+        // Not age-dependent: an unchanged height and weight must leave them as stored
+        previous.setBmi(99.0);
+        previous.setDailyWaterGoalMl(1);
+        when(profileRepo.findById(1L)).thenReturn(Optional.of(previous));
+
+        UserProfile saved = service.saveProfile(stored(today.minusMonths(6)));
+
+        double bmr = healthCalc.calculateBMR(75, 175, 30, "MALE");
+        assertEquals(bmr, saved.getBmr());
+        double tdee = healthCalc.calculateTDEE(bmr, "MODERATELY_ACTIVE");
+        assertEquals(tdee, saved.getTdee());
+        assertEquals(healthCalc.calculateDailyCalorieGoal(tdee, "LOSE_WEIGHT"), saved.getDailyCalorieGoal());
+        assertEquals(99.0, saved.getBmi());
+        assertEquals(1, saved.getDailyWaterGoalMl());
+    }
+
+    @Test
+    void insightsAfterBirthdayAreComputedWithoutSaving() {
+        UserProfile profile = stored(today.minusMonths(6));
+        double storedBmr = profile.getBmr();
+        when(profileRepo.findByUserId(USER)).thenReturn(Optional.of(profile));
+
+        assertEquals(healthCalc.calculateBMR(75, 175, 30, "MALE"), service.getHealthInsights(USER).getBmr());
+        assertEquals(healthCalc.calculateBMR(75, 175, 30, "MALE"), service.getHealthInsights(USER).getBmr());
+
+        verify(profileRepo, never()).save(any());
+        verify(profileRepo, times(1)).findByUserId(USER);
+        assertEquals(storedBmr, profile.getBmr());
+    }
+
+    @Test
+    void cachedInsightsNeedNoProfile() {
+        UserProfile profile = stored(today.minusDays(1));
+        HealthInsights first = service.getHealthInsights(USER, () -> profile);
+
+        assertSame(first, service.getHealthInsights(USER, () -> {
+            throw new AssertionError("profile loaded on a cache hit");
+        }));
+        assertNull(service.getHealthInsights("none@test.local", () -> null));
+    }
+
+    // Profile last saved on savedOn, its metrics computed at the age the user had then
+    private UserProfile stored(LocalDate savedOn) {
+        int age = healthCalc.calculateAge(dateOfBirth, savedOn);
+        double bmr = healthCalc.calculateBMR(75, 175, age, "MALE");
+        double tdee = healthCalc.calculateTDEE(bmr, "MODERATELY_ACTIVE");
+        return UserProfile.builder()
+            .id(1L)
+            .userId(USER)
+            .gender("MALE")
+            .dateOfBirth(dateOfBirth)
+            .heightCm(175)
+            .currentWeightKg(75)
+            .activityLevel("MODERATELY_ACTIVE")
+            .goal("LOSE_WEIGHT")
+            .bmi(healthCalc.calculateBMI(75, 175))
+            .bmr(bmr)
+            .tdee(tdee)
+            .dailyCalorieGoal(healthCalc.calculateDailyCalorieGoal(tdee, "LOSE_WEIGHT"))
+            .dailyWaterGoalMl(healthCalc.calculateDailyWaterGoal(75, "MODERATELY_ACTIVE"))
+            .createdAt(savedOn.atStartOfDay())
+            .updatedAt(savedOn.atTime(12, 0))
+            .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.healthmonitoring.reminder.service;
+
+import com.example.healthmonitoring.reminder.entity.Reminder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderWheelTest {
+
+    // 2025-01-06 is a Monday
+    private static final LocalDateTime MONDAY_0720 = LocalDateTime.of(2025, 1, 6, 7, 20);
+
+    @Test
+    void firesOnlyOnSelectedDaysAtTheMinute() {
+        ReminderWheel wheel = new ReminderWheel();
+        wheel.add(Reminder.parseTime("07:20"), Reminder.parseDays("1,3"));
+
+        assertTrue(wheel.hasDue(ReminderWheel.minuteOfWeek(MONDAY_0720)));
+        assertFalse(wheel.hasDue(ReminderWheel.minuteOfWeek(MONDAY_0720.plusMinutes(1))));
+        assertFalse(wheel.hasDue(ReminderWheel.minuteOfWeek(MONDAY_0720.plusDays(1))));
+        assertTrue(wheel.hasDue(ReminderWheel.minuteOfWeek(MONDAY_0720.plusDays(2))));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void slotStaysDueUntilItsLastReminderIsRemoved() {
+        ReminderWheel wheel = new ReminderWheel();
+        int minute = Reminder.parseTime("07:20");
+        int sunday = ReminderWheel.minuteOfWeek(MONDAY_0720.plusDays(6));
+        wheel.add(minute, Reminder.EVERY_DAY, 2);
+        assertEquals(14, wheel.size());
+
+        wheel.remove(minute, Reminder.EVERY_DAY);
+        assertTrue(wheel.hasDue(sunday));
+        wheel.remove(minute, Reminder.EVERY_DAY);
+        assertFalse(wheel.hasDue(sunday));
+        // An extra remove must not leave the slot owing a count to the next add
+        wheel.remove(minute, Reminder.EVERY_DAY);
+        wheel.add(minute, Reminder.EVERY_DAY);
+        assertTrue(wheel.hasDue(sunday));
+        assertEquals(7, wheel.size());
+    }
+
+    @Test
+    void parsesSchedules() {
+        assertEquals(23 * 60 + 59, Reminder.parseTime("23:59"));
+        assertEquals(-1, Reminder.parseTime("24:00"));
+        assertEquals(-1, Reminder.parseTime("7h20"));
+        assertEquals(Reminder.EVERY_DAY, Reminder.parseDays(""));
+        assertEquals(0b100_0001, Reminder.parseDays("1, 7"));
+        assertEquals(0, Reminder.parseDays("0,1"));
+    }
+
+    @Test
+    void formatsScheduleForTheApp() {
+        Reminder reminder = Reminder.builder().minuteOfDay(7 * 60 + 5).daysMask(0b100_0101).build();
+        assertEquals("07:05", reminder.getTime());
+        assertEquals("1,3,7", reminder.getDaysOfWeek());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.healthmonitoring.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    private static final String IP = "203.0.113.7";
+
+    // 2 per IP, 3 per user for /api/**, 1 per IP for /api/v1/auth/**; nothing refills during the test
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(),
+        true, 1000, 4, 2, 0.0001, 1, 0.0001, 10, 0.0001, 10, 0.0001, 3, 0.0001);
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void usersBehindOneAddressDoNotShareTheIpBucket() throws Exception {
+        for (long user = 1; user <= 3; user++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(200, status("/api/v1/water", user));
+            }
+            assertEquals(429, status("/api/v1/water", user));
+        }
+    }
+
+    @Test
+    void anonymousAndAuthRequestsTakeFromTheIpBucket() throws Exception {
+        assertEquals(200, status("/api/v1/auth/login", 1L));
+        assertEquals(200, status("/api/v1/water", null));
+        // The two requests above emptied the address's bucket
+        assertEquals(429, status("/api/v1/water", null));
+        assertEquals(429, status("/api/v1/auth/login", 2L));
+        // An authenticated request is only charged to its user
+        assertEquals(200, status("/api/v1/water", 1L));
+    }
+
+    private int status(String path, Long userKey) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (userKey != null) {
+            AuthUser user = new AuthUser(userKey, "u" + userKey + "@test.local", "u" + userKey + "@test.local", List.of("USER"));
+            SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        }
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", path);
+        req.setRemoteAddr(IP);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, new MockFilterChain());
+        return res.getStatus();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.healthmonitoring.statistics;
+
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+import com.example.healthmonitoring.totals.service.DailyTotalsService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DailyRollupServiceTest {
+
+    private static final String USER = "a@test.local";
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+
+    private final DailyTotalsService totalsService = mock(DailyTotalsService.class);
+    private final DailyRollupService service = new DailyRollupService(totalsService);
+
+    @Test
+    void zeroFillsDaysWithoutTotals() {
+        DailyUserTotal second = new DailyUserTotal();
+        second.setDay(FROM.plusDays(1));
+        second.setWaterMl(500);
+        second.setKcalIn(1800);
+        second.setKcalOut(300);
+        when(totalsService.getDays(USER, FROM, FROM.plusDays(2))).thenReturn(List.of(second));
+
+        List<DailyRollupService.DayTotals> days = service.rollup(USER, FROM, FROM.plusDays(2));
+
+        assertEquals(3, days.size());
+        assertEquals(new DailyRollupService.DayTotals(FROM, 0, 0, 0), days.get(0));
+        assertEquals(new DailyRollupService.DayTotals(FROM.plusDays(1), 500, 1800, 300), days.get(1));
+        assertEquals(1500, days.get(1).netCalories());
+        assertEquals(new DailyRollupService.DayTotals(FROM.plusDays(2), 0, 0, 0), days.get(2));
+    }
+
+    @Test
+    void rejectsRangesOverTheCapBeforeReading() {
+        LocalDate lastAllowed = FROM.plusDays(DailyRollupService.MAX_DAYS - 1);
+        when(totalsService.getDays(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(DailyRollupService.MAX_DAYS, service.rollup(USER, FROM, lastAllowed).size());
+        assertThrows(IllegalArgumentException.class, () -> service.rollup(USER, FROM, lastAllowed.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> service.rollup(USER, LocalDate.MIN, LocalDate.MAX));
+        verify(totalsService, never()).getDays(USER, FROM, lastAllowed.plusDays(1));
+    }
+
+    @Test
+    void reversedRangeIsEmpty() {
+        assertTrue(service.rollup(USER, FROM, FROM.minusDays(1)).isEmpty());
+    }
+}
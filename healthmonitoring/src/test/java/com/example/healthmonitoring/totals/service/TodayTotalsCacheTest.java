@@ -0,0 +1,92 @@
+package com.example.healthmonitoring.totals.service;
+
+import com.example.healthmonitoring.profile.repo.UserProfileRepository;
+import com.example.healthmonitoring.totals.entity.DailyUserTotal;
+import com.example.healthmonitoring.totals.repo.DailyUserTotalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TodayTotalsCacheTest {
+
+    private static final String USER = "a@test.local";
+
+    private final DailyUserTotalRepository totals = mock(DailyUserTotalRepository.class);
+    private final TodayTotalsCache cache = new TodayTotalsCache(totals, mock(UserProfileRepository.class),
+        100, Duration.ofMinutes(10), Duration.ofSeconds(2));
+    private final LocalDate today = LocalDate.now();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadBetweenCommitAndApplyIsNotCached() {
+        // A write of 250 commits; a miss reads the new row before the write's afterCommit runs
+        TransactionSynchronizationManager.initSynchronization();
+        cache.apply(USER, today, 250, 0, 0);
+        stored(250);
+        assertEquals(250, cache.get(USER, null).waterMl());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(250, cache.get(USER, null).waterMl());
+        assertEquals(250, cache.get(USER, null).waterMl());
+        verify(totals, times(2)).findByUserIdAndDay(USER, today);
+    }
+
+    @Test
+    void committedDeltaIsAddedToCachedEntry() {
+        stored(500);
+        cache.get(USER, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.apply(USER, today, 250, 0, 0);
+        assertEquals(500, cache.get(USER, null).waterMl());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(750, cache.get(USER, null).waterMl());
+        verify(totals, times(1)).findByUserIdAndDay(USER, today);
+    }
+
+    @Test
+    void rolledBackDeltaIsDiscarded() {
+        stored(500);
+        cache.get(USER, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.apply(USER, today, 250, 0, 0);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(500, cache.get(USER, null).waterMl());
+    }
+
+    private void stored(int waterMl) {
+        when(totals.findByUserIdAndDay(USER, today)).thenReturn(Optional.of(
+            DailyUserTotal.builder().userId(USER).day(today).waterMl(waterMl).build()));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
@@ -0,0 +1,7 @@
+-- Benchmark data for StatisticsBenchmark (H2 in PostgreSQL mode).
+-- A year of daily totals for one user; a non-empty table also skips the startup backfill.
+-- SYSTEM_RANGE's column is upper-case "X"; the URL folds unquoted names to lower case.
+INSERT INTO daily_user_totals (user_id, day, water_ml, kcal_in, kcal_out, water_logs, meal_logs, activity_logs)
+SELECT 'bench@example.com', DATEADD('DAY', -r."X", CURRENT_DATE),
+       1800 + MOD(r."X", 700), 1600 + MOD(r."X", 500), 300 + MOD(r."X", 200), 8, 3, 1
+FROM SYSTEM_RANGE(0, 364) r;